@@ -0,0 +1,72 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The BenchPhrases class makes up phrases for the benchmarks. Phrases are two to five words
+ * drawn from a fixed word list by a seeded generator, so every run measures the same phrases.
+ */
+final class BenchPhrases {
+    /** The seed every benchmark draws its phrases with. */
+    static final long SEED = 514;
+
+    private static final String[] WORDS = {
+            "the", "quick", "brown", "fox", "jumps", "over", "lazy", "dog", "wheel", "of",
+            "fortune", "master", "mind", "guess", "letter", "phrase", "game", "player", "score", "round",
+            "spin", "prize", "vowel", "puzzle", "answer", "bonus", "winner", "lucky", "golden", "river",
+            "mountain", "city", "night", "light", "music", "dance", "summer", "winter", "garden", "ocean",
+            "happy", "birthday", "friend", "family", "dinner", "breakfast", "coffee", "jazz", "quiz", "zebra",
+            "kitchen", "window", "yellow", "purple", "orange", "silver", "whisper", "thunder", "bicycle", "journey",
+            "a", "in", "on", "and"
+    };
+
+    private BenchPhrases() {
+    }
+
+    /**
+     * Makes up phrases.
+     *
+     * @param count the number of phrases
+     * @return the phrases, the same ones for the same count
+     */
+    static List<String> generate(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<String> phrases = new ArrayList<>(count);
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            phrase.setLength(0);
+            int words = 2 + random.nextInt(4);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    phrase.append(' ');
+                }
+                phrase.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            phrases.add(phrase.toString());
+        }
+        return phrases;
+    }
+
+    /**
+     * Writes made-up phrases to a temporary phrase file, one per line.
+     *
+     * @param count the number of phrases
+     * @return the file, which the caller deletes
+     * @throws IOException if the file cannot be written
+     */
+    static Path write(int count) throws IOException {
+        Path path = Files.createTempFile("bench-phrases", ".txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (String phrase : generate(count)) {
+                writer.write(phrase);
+                writer.newLine();
+            }
+        }
+        return path;
+    }
+}
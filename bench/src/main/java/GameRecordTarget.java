@@ -0,0 +1,44 @@
+import java.util.SplittableRandom;
+
+import bench.GameRecordBenchmark;
+
+/**
+ * The GameRecordTarget class queries a league of made-up games for {@link GameRecordBenchmark}.
+ */
+public final class GameRecordTarget implements GameRecordBenchmark.Target {
+    /** Games are spread over this many players, so each player has records at every size. */
+    private static final int PLAYERS = 1000;
+
+    private final AllGameRecord allGameRecords = new AllGameRecord();
+    private final int[] playerIds = new int[PLAYERS];
+    private int next;
+
+    /**
+     * @param records the number of games in the league
+     */
+    public GameRecordTarget(String records) {
+        for (int p = 0; p < PLAYERS; p++) {
+            playerIds[p] = allGameRecords.generateNewPlayerId();
+        }
+        SplittableRandom random = new SplittableRandom(BenchPhrases.SEED);
+        int count = Integer.parseInt(records);
+        for (int i = 0; i < count; i++) {
+            allGameRecords.add(random.nextInt(101), playerIds[i % PLAYERS]);
+        }
+    }
+
+    @Override
+    public float playerAverage() {
+        return allGameRecords.playerAverage(playerIds[next++ % PLAYERS]);
+    }
+
+    @Override
+    public int highGameList() {
+        return allGameRecords.highGameList(5).size();
+    }
+
+    @Override
+    public int highGameListBeyondLeaderboard() {
+        return allGameRecords.highGameList(AllGameRecord.DEFAULT_LEADERBOARD_SIZE * 10).size();
+    }
+}
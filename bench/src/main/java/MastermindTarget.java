@@ -0,0 +1,50 @@
+import java.util.SplittableRandom;
+
+import bench.MastermindBenchmark;
+
+/**
+ * The MastermindTarget class runs the classic Mastermind game for {@link MastermindBenchmark}.
+ */
+public final class MastermindTarget implements MastermindBenchmark.Target {
+    private static final int CODES = 1024;
+
+    private final MastermindSolver solver = MastermindSolver.classic();
+    private final MastermindEngine engine = solver.getEngine();
+    private final int[] guesses = new int[CODES];
+    private final String[] guessTexts = new String[CODES];
+    private final int[] secrets = new int[CODES];
+    private final int[] secretIndexes = new int[CODES];
+    private MastermindGameContext game;
+    private int next;
+
+    public MastermindTarget() {
+        SplittableRandom random = new SplittableRandom(BenchPhrases.SEED);
+        for (int i = 0; i < CODES; i++) {
+            guesses[i] = engine.randomCode(random);
+            guessTexts[i] = engine.decode(guesses[i]);
+            secrets[i] = engine.randomCode(random);
+            secretIndexes[i] = solver.indexOf(secrets[i]);
+        }
+        game = new MastermindGameContext(0, engine, secrets[0]);
+    }
+
+    @Override
+    public int score() {
+        int i = next++ & (CODES - 1);
+        return engine.score(guesses[i], secrets[i]);
+    }
+
+    @Override
+    public int processGuess() {
+        int i = next++ & (CODES - 1);
+        if (game.getAttemptsLeft() == 0) {
+            game = new MastermindGameContext(0, engine, secrets[i]);
+        }
+        return game.processGuess(guessTexts[i]);
+    }
+
+    @Override
+    public int solve() {
+        return solver.solve(secretIndexes[next++ & (CODES - 1)]);
+    }
+}
@@ -0,0 +1,52 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import bench.PhraseCorpusBenchmark;
+
+/**
+ * The PhraseCorpusTarget class reads a made-up phrase file for {@link PhraseCorpusBenchmark}.
+ */
+public final class PhraseCorpusTarget implements PhraseCorpusBenchmark.Target {
+    private final Path path;
+
+    /**
+     * @param phrases the number of phrases in the file
+     * @throws IOException if the file cannot be written
+     */
+    public PhraseCorpusTarget(String phrases) throws IOException {
+        path = BenchPhrases.write(Integer.parseInt(phrases));
+    }
+
+    @Override
+    public int open() {
+        return corpus().size();
+    }
+
+    @Override
+    public long readPhrases() {
+        long length = 0;
+        for (String phrase : corpus().asList()) {
+            length += phrase.length();
+        }
+        return length;
+    }
+
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private PhraseCorpus corpus() {
+        try {
+            return PhraseCorpus.open(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
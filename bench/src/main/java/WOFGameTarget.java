@@ -0,0 +1,39 @@
+import java.util.List;
+import java.util.SplittableRandom;
+
+import bench.WOFGameBenchmark;
+
+/**
+ * The WOFGameTarget class runs the Wheel of Fortune game engine for {@link WOFGameBenchmark}.
+ */
+public final class WOFGameTarget implements WOFGameBenchmark.Target {
+    private static final String GUESS_ORDER = "etaoinshrdlcumwfgypbvkjxqz";
+    private static final int PHRASES = 1024;
+
+    private final List<String> phrases = BenchPhrases.generate(PHRASES);
+    private final SplittableRandom random = new SplittableRandom(BenchPhrases.SEED);
+    private final WOFGameContext halfPlayed;
+    private int next;
+
+    public WOFGameTarget() {
+        halfPlayed = new WOFGameContext(0, phrases.get(0), 10, random);
+        for (int i = 0; i < 4; i++) {
+            halfPlayed.processGuess(GUESS_ORDER.charAt(i), QuietGameObserver.INSTANCE);
+        }
+    }
+
+    @Override
+    public int playGuesses() {
+        WOFGameContext game = new WOFGameContext(0, phrases.get(next++ & (PHRASES - 1)), 10, random);
+        int guesses = 0;
+        while (!game.checkWin() && game.getWrongAnswers() > 0) {
+            game.processGuess(GUESS_ORDER.charAt(guesses++), QuietGameObserver.INSTANCE);
+        }
+        return guesses;
+    }
+
+    @Override
+    public boolean checkWin() {
+        return halfPlayed.checkWin();
+    }
+}
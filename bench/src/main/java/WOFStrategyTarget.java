@@ -0,0 +1,37 @@
+import java.util.List;
+import java.util.SplittableRandom;
+
+import bench.WOFStrategyBenchmark;
+
+/**
+ * The WOFStrategyTarget class plays Wheel of Fortune games with one strategy for
+ * {@link WOFStrategyBenchmark}.
+ */
+public final class WOFStrategyTarget implements WOFStrategyBenchmark.Target {
+    private static final int PHRASES = 1024;
+
+    private final List<String> phrases = BenchPhrases.generate(PHRASES);
+    private final SplittableRandom random = new SplittableRandom(BenchPhrases.SEED);
+    private final WOFInterface player;
+    private int next;
+
+    /**
+     * @param strategy random, common, vowelFirst or pattern
+     */
+    public WOFStrategyTarget(String strategy) {
+        AllGameRecord allGameRecords = new AllGameRecord();
+        player = switch (strategy) {
+            case "random" -> new WOFIRandom(allGameRecords, new GameRandom(BenchPhrases.SEED));
+            case "common" -> new WOFICommon(allGameRecords);
+            case "vowelFirst" -> new WOFIVowelFirst(allGameRecords);
+            case "pattern" -> new WOFIPattern(allGameRecords, PhraseCorpus.of(phrases));
+            default -> throw new IllegalArgumentException("unknown strategy: " + strategy);
+        };
+    }
+
+    @Override
+    public boolean playGame() {
+        WOFGameContext game = new WOFGameContext(player.playerId(), phrases.get(next++ & (PHRASES - 1)), 10, random);
+        return game.playWith(player, QuietGameObserver.INSTANCE);
+    }
+}
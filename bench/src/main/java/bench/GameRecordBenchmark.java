@@ -0,0 +1,74 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the AllGameRecord queries against leagues of 10^3 to 10^8 records. The largest
+ * league needs about 2 GB of heap, which the fork is given.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class GameRecordBenchmark {
+
+    /** Implemented by the default-package class GameRecordTarget. */
+    public interface Target {
+        /**
+         * @return the average score of the next player
+         */
+        float playerAverage();
+
+        /**
+         * @return the number of games in the five highest scores
+         */
+        int highGameList();
+
+        /**
+         * Lists more high scores than the leaderboards keep, which scans every record.
+         *
+         * @return the number of games listed
+         */
+        int highGameListBeyondLeaderboard();
+    }
+
+    @Param({"1000", "100000", "10000000", "100000000"})
+    public String records;
+
+    private Target target;
+
+    @Setup
+    public void setUp() {
+        target = Targets.load(Target.class, "GameRecordTarget", records);
+    }
+
+    @Benchmark
+    public float playerAverage() {
+        return target.playerAverage();
+    }
+
+    @Benchmark
+    public int highGameList() {
+        return target.highGameList();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int highGameListBeyondLeaderboard() {
+        return target.highGameListBeyondLeaderboard();
+    }
+}
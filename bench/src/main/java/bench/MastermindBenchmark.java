@@ -0,0 +1,73 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Mastermind: scoring a guess, processing a guess in a game and solving a game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MastermindBenchmark {
+
+    /** Implemented by the default-package class MastermindTarget. */
+    public interface Target {
+        /**
+         * Scores the next packed guess against the next secret.
+         *
+         * @return the packed feedback
+         */
+        int score();
+
+        /**
+         * Processes the next guess, given as text, in a game, starting a new game when the last
+         * one has run out of attempts.
+         *
+         * @return the packed feedback
+         */
+        int processGuess();
+
+        /**
+         * Solves the next secret with the Knuth solver.
+         *
+         * @return the number of guesses the solver needed
+         */
+        int solve();
+    }
+
+    private Target target;
+
+    @Setup
+    public void setUp() {
+        target = Targets.load(Target.class, "MastermindTarget");
+    }
+
+    @Benchmark
+    public int score() {
+        return target.score();
+    }
+
+    @Benchmark
+    public int processGuess() {
+        return target.processGuess();
+    }
+
+    @Benchmark
+    public int solve() {
+        return target.solve();
+    }
+}
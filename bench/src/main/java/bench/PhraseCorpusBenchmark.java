@@ -0,0 +1,76 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading a phrase file: opening it, which indexes every line, and reading every
+ * phrase the way readPhrases does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhraseCorpusBenchmark {
+
+    /** Implemented by the default-package class PhraseCorpusTarget. */
+    public interface Target {
+        /**
+         * Opens the phrase file.
+         *
+         * @return the number of phrases found
+         */
+        int open();
+
+        /**
+         * Opens the phrase file and decodes every phrase.
+         *
+         * @return the total length of the phrases
+         */
+        long readPhrases();
+
+        /**
+         * Deletes the phrase file.
+         */
+        void close();
+    }
+
+    @Param({"10000", "1000000"})
+    public String phrases;
+
+    private Target target;
+
+    @Setup
+    public void setUp() {
+        target = Targets.load(Target.class, "PhraseCorpusTarget", phrases);
+    }
+
+    @TearDown
+    public void tearDown() {
+        target.close();
+    }
+
+    @Benchmark
+    public int open() {
+        return target.open();
+    }
+
+    @Benchmark
+    public long readPhrases() {
+        return target.readPhrases();
+    }
+}
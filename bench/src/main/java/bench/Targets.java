@@ -0,0 +1,41 @@
+package bench;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+
+/**
+ * The Targets class loads the code a benchmark measures.
+ *
+ * <p>The game classes live in the default package, which JMH does not allow benchmarks in and
+ * which code in a named package cannot refer to. Each benchmark therefore declares a small
+ * target interface, and a default-package class next to the game code implements it. The
+ * target is loaded once per trial, and the call through the interface is monomorphic, so the
+ * JIT inlines it and the measurements are not skewed.</p>
+ */
+final class Targets {
+
+    private Targets() {
+    }
+
+    /**
+     * Creates a target by its class name.
+     *
+     * @param type the target interface
+     * @param className the default-package class implementing it
+     * @param args the string arguments of the constructor to call, usually benchmark parameters
+     * @param <T> the target interface
+     * @return the new target
+     */
+    static <T> T load(Class<T> type, String className, String... args) {
+        try {
+            Class<?>[] parameterTypes = new Class<?>[args.length];
+            Arrays.fill(parameterTypes, String.class);
+            Object target = Class.forName(className).getConstructor(parameterTypes).newInstance((Object[]) args);
+            return type.cast(target);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("cannot set up " + className, e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("cannot load " + className, e);
+        }
+    }
+}
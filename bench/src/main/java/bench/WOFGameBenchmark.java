@@ -0,0 +1,61 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the Wheel of Fortune game engine that WOFAI and the tournaments delegate to:
+ * processing guesses and checking for a win.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WOFGameBenchmark {
+
+    /** Implemented by the default-package class WOFGameTarget. */
+    public interface Target {
+        /**
+         * Starts a game on the next phrase and guesses letters in a fixed order until it ends.
+         *
+         * @return the number of guesses made
+         */
+        int playGuesses();
+
+        /**
+         * Checks a game that is half played for a win.
+         *
+         * @return whether that game has been won
+         */
+        boolean checkWin();
+    }
+
+    private Target target;
+
+    @Setup
+    public void setUp() {
+        target = Targets.load(Target.class, "WOFGameTarget");
+    }
+
+    @Benchmark
+    public int processGuess() {
+        return target.playGuesses();
+    }
+
+    @Benchmark
+    public boolean checkWin() {
+        return target.checkWin();
+    }
+}
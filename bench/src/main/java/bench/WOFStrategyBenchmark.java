@@ -0,0 +1,54 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the guesses of each WOFInterface strategy. A whole game is timed rather than one
+ * guess, because a strategy's guesses depend on the state of its game; subtract
+ * {@link WOFGameBenchmark#processGuess()} to see the share of getGuess.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WOFStrategyBenchmark {
+
+    /** Implemented by the default-package class WOFStrategyTarget. */
+    public interface Target {
+        /**
+         * Plays one game on the next phrase with the strategy.
+         *
+         * @return whether the strategy won
+         */
+        boolean playGame();
+    }
+
+    @Param({"random", "common", "vowelFirst", "pattern"})
+    public String strategy;
+
+    private Target target;
+
+    @Setup
+    public void setUp() {
+        target = Targets.load(Target.class, "WOFStrategyTarget", strategy);
+    }
+
+    @Benchmark
+    public boolean getGuess() {
+        return target.playGame();
+    }
+}
@@ -5,15 +5,62 @@
  *
  * <p>This class serves as a central storage and utility for processing
  * information about multiple games and players.</p>
+ *
+ * <p>Every instance is an independent league with its own records and its own
+ * player IDs, so several record sets can live in one process. Instances are
+ * thread-safe: records are appended to one of several stripes chosen by the
+ * calling thread, so games running on different threads rarely wait on the
+ * same lock, and player IDs are handed out by an atomic counter.</p>
+ *
+ * <p>Records are stored column by column as primitive ints (see
+ * {@link GameRecordColumns}), either on the heap or off-heap in direct
+ * buffers. GameRecord objects are only created when a caller asks for them.</p>
+ *
+ * <p>Each stripe also keeps running statistics ({@link ScoreStats}) for all
+ * of its games and for each player, updated as games are added. Averages,
+ * and the medians, percentiles and win rates of the score histograms
+ * ({@link ScoreHistogram}), only merge those statistics across the stripes,
+ * so they cost the same no matter how many games have been recorded.</p>
+ *
+ * <p>High score lists are kept the same way: each stripe holds a bounded
+ * min-heap ({@link TopScores}) of its best scores overall and per player, so
+ * asking for the top n games only merges those small heaps. Only requests for
+ * more games than the heaps hold fall back to scanning the columns. None of
+ * the high score methods reorder the stored records or the caller's list.</p>
+ *
+ * <p>Every record carries a {@link GameType}, the identity of the player's
+ * strategy and the time it was recorded. Besides the per-player statistics,
+ * each stripe keeps the same statistics and high scores for each game type
+ * and for each minute ({@link #TIME_BUCKET_MILLIS}) in which games were
+ * recorded, together with the range of positions that minute's records were
+ * stored at. Averages, histograms and leaderboards for one game type merge
+ * those summaries directly. A time window merges the summaries of the
+ * minutes it covers in full and only scans the records of the minutes at its
+ * two ends, so "the last hour" costs the same however long the history
+ * is. Strategy names are stored once and referred to by code.</p>
+ *
+ * <p>A league recovered from a {@link GameRecordJournal} also appends every
+ * new record to that journal, so its games outlive the program.</p>
  */
 
-import java.lang.reflect.Array;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class AllGameRecord {
-    public static ArrayList<GameRecord> listOfGameRecords;
-    public static int playerId = 0;
+    //number of high scores kept per stripe, overall and for each player
+    public static final int DEFAULT_LEADERBOARD_SIZE = 10;
+    //length of the time buckets games are summarized in
+    public static final long TIME_BUCKET_MILLIS = 60_000;
+
+    private final Stripe[] stripes;
+    private final int leaderboardSize;
+    private final AtomicInteger playerId = new AtomicInteger();
+    private volatile GameRecordJournal journal;
+    //strategy names by code; code 0 stands for an unknown strategy
+    private final ArrayList<String> strategyNames = new ArrayList<>();
+    private final ConcurrentHashMap<String, Integer> strategyCodes = new ConcurrentHashMap<>();
 
     @Override
     public String toString() {
@@ -23,28 +70,168 @@ public class AllGameRecord {
 
     //constructor
     public AllGameRecord(){
-        listOfGameRecords = new ArrayList<GameRecord>();
+        this(false);
+    }
+
+    //constructor; offHeap keeps the record columns in direct buffers outside the Java heap
+    public AllGameRecord(boolean offHeap){
+        this(offHeap, DEFAULT_LEADERBOARD_SIZE);
+    }
+
+    //constructor; leaderboardSize is the largest n the high score lists answer without a scan
+    public AllGameRecord(boolean offHeap, int leaderboardSize){
+        this.leaderboardSize = leaderboardSize;
+        int stripeCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(i, offHeap ? new DirectGameRecordColumns() : new HeapGameRecordColumns(), leaderboardSize);
+        }
+        strategyNames.add(null);
+    }
+
+    //return the most recently generated playerId
+    public int getPlayerId(){
+        return playerId.get();
+    }
+
+    //generate unique player Id; IDs are dense and start at 1
+    public int generateNewPlayerId() {
+        return playerId.incrementAndGet();
     }
 
-    //return current playerId
-    //wait, is this necessary?
-    //also in GameRecord...
-    public static int getPlayerId(){
-        return playerId;
+    //make sure IDs generated from now on are higher than every recovered player ID
+    void advancePlayerIdTo(int recoveredPlayerId) {
+        playerId.accumulateAndGet(recoveredPlayerId, Math::max);
     }
 
-    //generate unique player Id
-    public static int generateNewPlayerId() {
-        playerId++;
-        return playerId;
+    //journal every record added from now on
+    void setJournal(GameRecordJournal journal) {
+        this.journal = journal;
+    }
+
+    //code a strategy name is stored under, giving the name the next free code the first time it is seen
+    int strategyCode(String strategy) {
+        if (strategy == null) {
+            return 0;
+        }
+        Integer code = strategyCodes.get(strategy);
+        if (code != null) {
+            return code;
+        }
+        synchronized (strategyNames) {
+            code = strategyCodes.get(strategy);
+            if (code == null) {
+                code = strategyNames.size();
+                if (code >= GameRecordColumns.MAX_STRATEGIES) {
+                    throw new IllegalStateException("too many strategies: " + code);
+                }
+                GameRecordJournal journal = this.journal;
+                if (journal != null) {
+                    journal.appendStrategy(strategy);
+                }
+                strategyNames.add(strategy);
+                strategyCodes.put(strategy, code);
+            }
+            return code;
+        }
+    }
+
+    //strategy name stored under a code
+    private String strategyName(int code) {
+        synchronized (strategyNames) {
+            return strategyNames.get(code);
+        }
     }
 
     //add game to list of records
     public void add(GameRecord game){
-        listOfGameRecords.add(game);
+        add(game.score, game.playerId, game.gameType, game.strategy, game.timestamp);
+    }
+
+    //add game of unknown type and strategy, recorded now, without creating a GameRecord
+    public void add(int score, int playerId){
+        add(score, playerId, GameType.UNKNOWN, null, System.currentTimeMillis());
+    }
+
+    //add game to list of records without creating a GameRecord
+    public void add(int score, int playerId, GameType gameType, String strategy, long timestamp){
+        if (GameMetrics.ENABLED) {
+            long start = System.nanoTime();
+            store(score, playerId, gameType, strategy, timestamp);
+            GameMetrics.get().recordStored(System.nanoTime() - start);
+        } else {
+            store(score, playerId, gameType, strategy, timestamp);
+        }
+    }
+
+    //journal the game and append it to the stripe of the calling thread
+    private void store(int score, int playerId, GameType gameType, String strategy, long timestamp){
+        int strategyCode = strategyCode(strategy);
+        GameRecordJournal journal = this.journal;
+        if (journal != null) {
+            journal.append(score, playerId, gameType.ordinal(), strategyCode, timestamp);
+        }
+        Stripe stripe = stripeForCurrentThread();
+        synchronized (stripe) {
+            int position = stripe.columns.size();
+            long ref = ref(stripe, position);
+            stripe.columns.append(score, playerId, gameType.ordinal(), strategyCode, timestamp);
+            stripe.all.add(score);
+            ScoreStats player = stripe.players.get(playerId);
+            if (player == null) {
+                player = new ScoreStats();
+                stripe.players.put(playerId, player);
+            }
+            player.add(score);
+            stripe.top.offer(score, ref);
+            TopScores playerTop = stripe.playerTops.get(playerId);
+            if (playerTop == null) {
+                playerTop = new TopScores(leaderboardSize);
+                stripe.playerTops.put(playerId, playerTop);
+            }
+            playerTop.offer(score, ref);
+            stripe.types[gameType.ordinal()].add(score, ref, position);
+            int bucket = bucketOf(timestamp);
+            Slice minute = stripe.lastBucket;
+            if (minute == null || bucket != stripe.lastBucketKey) {
+                minute = stripe.buckets.get(bucket);
+                if (minute == null) {
+                    minute = new Slice(leaderboardSize);
+                    stripe.buckets.put(bucket, minute);
+                }
+                stripe.lastBucket = minute;
+                stripe.lastBucketKey = bucket;
+            }
+            minute.add(score, ref, position);
+        }
+    }
+
+    //number of games recorded so far
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.columns.size();
+            }
+        }
+        return size;
+    }
+
+    //snapshot of every record; games added by one thread keep their order
+    public ArrayList<GameRecord> getGameRecords() {
+        ArrayList<GameRecord> games = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                GameRecordColumns columns = stripe.columns;
+                for (int i = 0; i < columns.size(); i++) {
+                    games.add(record(columns, i));
+                }
+            }
+        }
+        return games;
     }
 
-    //
+    //average of a list of games
     public static float average(ArrayList<GameRecord> games){
         int sum = 0;
         int length = games.size();
@@ -54,36 +241,336 @@ public class AllGameRecord {
         return (float) sum /length;
     }
 
-    public static float playerAverage(int playerId){
-        ArrayList<GameRecord> gamesByPlayerID = new ArrayList<>();
-        for(GameRecord game : listOfGameRecords){
-            if(game.playerId == playerId){
-                gamesByPlayerID.add(game);
+    //average of every recorded score
+    public float average() {
+        return stats().average();
+    }
+
+    public float playerAverage(int playerId){
+        return playerStats(playerId).average();
+    }
+
+    //snapshot of the count, sum, min, max and histogram over every recorded score
+    public ScoreStats stats() {
+        ScoreStats stats = new ScoreStats();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stats.merge(stripe.all);
             }
         }
-        return average(gamesByPlayerID);
+        return stats;
     }
 
-    public static ArrayList<GameRecord> highGameList(ArrayList<GameRecord> arrayOfGames, int n){
-        //Collections.sort(arrayOfGames);
-        arrayOfGames.sort((game1, game2) -> Integer.compare(game2.score, game1.score));
+    //snapshot of the count, sum, min, max and histogram over one player's scores
+    public ScoreStats playerStats(int playerId) {
+        ScoreStats stats = new ScoreStats();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                ScoreStats player = stripe.players.get(playerId);
+                if (player != null) {
+                    stats.merge(player);
+                }
+            }
+        }
+        return stats;
+    }
+
+    //snapshot of how many games ended with each score
+    public ScoreHistogram histogram() {
+        return stats().getHistogram();
+    }
 
-        // Ensures we don't exceed the list size if n is greater than arrayOfGames size
-        n = Math.min(n, arrayOfGames.size());
-        return new ArrayList<>(arrayOfGames.subList(0, n));
-        //return arrayOfGames;
+    //snapshot of how many of one player's games ended with each score
+    public ScoreHistogram playerHistogram(int playerId) {
+        return playerStats(playerId).getHistogram();
+    }
+
+    //top n scores across all players, highest first; the stored records are left untouched
+    public ArrayList<GameRecord> highGameList(int n) {
+        TopScores top = new TopScores(Math.max(0, n));
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                if (n <= leaderboardSize) {
+                    top.offerAll(stripe.top);
+                } else {
+                    GameRecordColumns columns = stripe.columns;
+                    for (int i = 0; i < columns.size(); i++) {
+                        top.offer(columns.score(i), ref(stripe, i));
+                    }
+                }
+            }
+        }
+        return records(top.refs());
+    }
+
+    //top n scores for one player, highest first
+    public ArrayList<GameRecord> highGameListPlayer(int playerId, int n) {
+        TopScores top = new TopScores(Math.max(0, n));
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                if (n <= leaderboardSize) {
+                    TopScores playerTop = stripe.playerTops.get(playerId);
+                    if (playerTop != null) {
+                        top.offerAll(playerTop);
+                    }
+                } else {
+                    GameRecordColumns columns = stripe.columns;
+                    for (int i = 0; i < columns.size(); i++) {
+                        if (columns.playerId(i) == playerId) {
+                            top.offer(columns.score(i), ref(stripe, i));
+                        }
+                    }
+                }
+            }
+        }
+        return records(top.refs());
     }
 
+    //top n scores in a list of games, highest first; the list itself is not reordered
+    public static ArrayList<GameRecord> highGameList(ArrayList<GameRecord> arrayOfGames, int n){
+        TopScores top = new TopScores(Math.max(0, Math.min(n, arrayOfGames.size())));
+        for(int i = 0; i < arrayOfGames.size(); i++){
+            top.offer(arrayOfGames.get(i).score, i);
+        }
+        return listRecords(arrayOfGames, top.refs());
+    }
+
+    //top n scores for one player in a list of games, highest first
     public static ArrayList<GameRecord> highGameListPlayer(int playerId, ArrayList<GameRecord> arrayOfGames, int n){
-        ArrayList<GameRecord> gamesByPlayerID = new ArrayList<>();
-        for(GameRecord game : arrayOfGames){
+        TopScores top = new TopScores(Math.max(0, Math.min(n, arrayOfGames.size())));
+        for(int i = 0; i < arrayOfGames.size(); i++){
+            GameRecord game = arrayOfGames.get(i);
             if(game.playerId == playerId){
-                gamesByPlayerID.add(game);
+                top.offer(game.score, i);
+            }
+        }
+        return listRecords(arrayOfGames, top.refs());
+    }
+
+    //the games of a list at the given indexes, in order
+    private static ArrayList<GameRecord> listRecords(ArrayList<GameRecord> arrayOfGames, long[] indexes) {
+        ArrayList<GameRecord> games = new ArrayList<>(indexes.length);
+        for (long index : indexes) {
+            games.add(arrayOfGames.get((int) index));
+        }
+        return games;
+    }
+
+    //snapshot of the count, sum, min, max and histogram over the games of one type
+    public ScoreStats stats(GameType gameType) {
+        ScoreStats stats = new ScoreStats();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stats.merge(stripe.types[gameType.ordinal()].stats);
+            }
+        }
+        return stats;
+    }
+
+    //average score of the games of one type
+    public float average(GameType gameType) {
+        return stats(gameType).average();
+    }
+
+    //snapshot of how many games of one type ended with each score
+    public ScoreHistogram histogram(GameType gameType) {
+        return stats(gameType).getHistogram();
+    }
+
+    //top n scores among the games of one type, highest first
+    public ArrayList<GameRecord> highGameList(GameType gameType, int n) {
+        TopScores top = new TopScores(Math.max(0, n));
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                if (n <= leaderboardSize) {
+                    top.offerAll(stripe.types[gameType.ordinal()].top);
+                } else {
+                    GameRecordColumns columns = stripe.columns;
+                    for (int i = 0; i < columns.size(); i++) {
+                        if (columns.gameType(i) == gameType.ordinal()) {
+                            top.offer(columns.score(i), ref(stripe, i));
+                        }
+                    }
+                }
+            }
+        }
+        return records(top.refs());
+    }
+
+    //snapshot of the count, sum, min, max and histogram over the games recorded from 'from' up to but not including 'to', in epoch milliseconds
+    public ScoreStats stats(long from, long to) {
+        ScoreStats stats = new ScoreStats();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (int bucket : bucketsIn(stripe, from, to)) {
+                    Slice minute = stripe.buckets.get(bucket);
+                    if (covers(from, to, bucket)) {
+                        stats.merge(minute.stats);
+                        continue;
+                    }
+                    GameRecordColumns columns = stripe.columns;
+                    for (int i = minute.first; i <= minute.last; i++) {
+                        if (inWindow(columns.timestamp(i), from, to, bucket)) {
+                            stats.add(columns.score(i));
+                        }
+                    }
+                }
+            }
+        }
+        return stats;
+    }
+
+    //average score of the games recorded in a time window
+    public float average(long from, long to) {
+        return stats(from, to).average();
+    }
+
+    //snapshot of how many games recorded in a time window ended with each score
+    public ScoreHistogram histogram(long from, long to) {
+        return stats(from, to).getHistogram();
+    }
+
+    //top n scores among the games recorded in a time window, highest first
+    public ArrayList<GameRecord> highGameList(long from, long to, int n) {
+        TopScores top = new TopScores(Math.max(0, n));
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (int bucket : bucketsIn(stripe, from, to)) {
+                    Slice minute = stripe.buckets.get(bucket);
+                    if (n <= leaderboardSize && covers(from, to, bucket)) {
+                        top.offerAll(minute.top);
+                        continue;
+                    }
+                    GameRecordColumns columns = stripe.columns;
+                    for (int i = minute.first; i <= minute.last; i++) {
+                        if (inWindow(columns.timestamp(i), from, to, bucket)) {
+                            top.offer(columns.score(i), ref(stripe, i));
+                        }
+                    }
+                }
             }
         }
-        return highGameList(gamesByPlayerID, n);
+        return records(top.refs());
     }
 
+    //time bucket a timestamp falls in
+    private static int bucketOf(long timestamp) {
+        long bucket = Math.floorDiv(timestamp, TIME_BUCKET_MILLIS);
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, bucket));
+    }
 
+    //whether a time bucket lies entirely inside a time window
+    private static boolean covers(long from, long to, int bucket) {
+        long start = bucket * TIME_BUCKET_MILLIS;
+        return start >= from && start + TIME_BUCKET_MILLIS <= to;
+    }
+
+    //whether a record of a bucket's position range belongs to that bucket and the time window; records stored out of time order may fall in another bucket
+    private static boolean inWindow(long timestamp, long from, long to, int bucket) {
+        return timestamp >= from && timestamp < to && bucketOf(timestamp) == bucket;
+    }
+
+    //time buckets of a stripe that overlap a time window, walking whichever is shorter: the window or the stripe's buckets
+    private static int[] bucketsIn(Stripe stripe, long from, long to) {
+        if (to <= from) {
+            return new int[0];
+        }
+        int first = bucketOf(from);
+        int last = bucketOf(to - 1);
+        int[] buckets;
+        int n = 0;
+        if ((long) last - first + 1 > stripe.buckets.size()) {
+            buckets = stripe.buckets.keys();
+            for (int bucket : buckets) {
+                if (bucket >= first && bucket <= last) {
+                    buckets[n++] = bucket;
+                }
+            }
+        } else {
+            buckets = new int[last - first + 1];
+            for (int bucket = first; bucket <= last; bucket++) {
+                if (stripe.buckets.get(bucket) != null) {
+                    buckets[n++] = bucket;
+                }
+            }
+        }
+        return Arrays.copyOf(buckets, n);
+    }
+
+    //reference to the record at a position of a stripe
+    private static long ref(Stripe stripe, int position) {
+        return (long) stripe.number << 32 | position;
+    }
+
+    //the records behind references, in order
+    private ArrayList<GameRecord> records(long[] refs) {
+        ArrayList<GameRecord> games = new ArrayList<>(refs.length);
+        for (long ref : refs) {
+            Stripe stripe = stripes[(int) (ref >>> 32)];
+            synchronized (stripe) {
+                games.add(record(stripe.columns, (int) ref));
+            }
+        }
+        return games;
+    }
+
+    //the record at a position of a set of columns
+    private GameRecord record(GameRecordColumns columns, int i) {
+        return new GameRecord(columns.score(i), columns.playerId(i), GameType.of(columns.gameType(i)),
+                strategyName(columns.strategy(i)), columns.timestamp(i));
+    }
+
+    //pick the stripe for the calling thread; a thread always lands on the same stripe
+    private Stripe stripeForCurrentThread() {
+        int hash = System.identityHashCode(Thread.currentThread());
+        hash ^= hash >>> 16;
+        return stripes[hash & (stripes.length - 1)];
+    }
+
+    //one independently locked slice of the records
+    private static final class Stripe {
+        private final int number;
+        private final GameRecordColumns columns;
+        private final ScoreStats all = new ScoreStats();
+        private final IntObjectMap<ScoreStats> players = new IntObjectMap<>();
+        private final TopScores top;
+        private final IntObjectMap<TopScores> playerTops = new IntObjectMap<>();
+        //summaries by game type ordinal and by time bucket
+        private final Slice[] types = new Slice[GameType.values().length];
+        private final IntObjectMap<Slice> buckets = new IntObjectMap<>();
+        //the bucket games were last added to, which is almost always the one the next game goes to
+        private Slice lastBucket;
+        private int lastBucketKey;
+
+        private Stripe(int number, GameRecordColumns columns, int leaderboardSize) {
+            this.number = number;
+            this.columns = columns;
+            this.top = new TopScores(leaderboardSize);
+            for (int i = 0; i < types.length; i++) {
+                types[i] = new Slice(leaderboardSize);
+            }
+        }
+    }
+
+    //statistics and high scores of part of a stripe's records, and the range of positions those records were stored at
+    private static final class Slice {
+        private final ScoreStats stats = new ScoreStats();
+        private final TopScores top;
+        private int first = -1;
+        private int last = -1;
+
+        private Slice(int leaderboardSize) {
+            this.top = new TopScores(leaderboardSize);
+        }
+
+        private void add(int score, long ref, int position) {
+            stats.add(score);
+            top.offer(score, ref);
+            if (first < 0) {
+                first = position;
+            }
+            last = position;
+        }
+    }
 
 }
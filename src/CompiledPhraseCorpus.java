@@ -0,0 +1,345 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The CompiledPhraseCorpus class serves phrases from a binary corpus file written ahead of time
+ * by {@link #compile(PhraseCorpus, Path)}. Opening one only maps the file and checks its header:
+ * nothing is parsed and nothing is copied onto the heap, so games can start drawing phrases
+ * within milliseconds of startup however large the corpus is.
+ *
+ * <p>Phrases are normalized when compiled: letters are lower-cased, runs of whitespace become a
+ * single space, leading and trailing whitespace is dropped, and empty and repeated phrases are
+ * left out. Each phrase is stored as 5-bit codes, 0 for a word boundary and 1 to 26 for 'a' to
+ * 'z'; any other character is stored as an escape code followed by the 16 bits of the
+ * character. Next to the codes the file keeps, for every phrase, where its codes start, its
+ * length and its {@link FixedOrderScorer#phraseMask letter mask}, so players that only need the
+ * letters of a phrase never decode it.</p>
+ *
+ * <p>The file is laid out in little-endian order as a 32-byte header (magic, version, phrase
+ * count and code count), the code offsets (count + 1 unsigned ints), the letter masks (count
+ * ints), the lengths (count unsigned shorts, padded to 4 bytes) and the packed codes. The file
+ * must be smaller than 2 GB, which also keeps the code count below 2^32.</p>
+ */
+public final class CompiledPhraseCorpus implements PhraseCorpus {
+    /** The usual extension of compiled corpus files. */
+    public static final String EXTENSION = ".wofc";
+
+    private static final long MAGIC = 0x574F464350485253L; // "WOFCPHRS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int CODE_BITS = 5;
+    private static final int CODE_MASK = (1 << CODE_BITS) - 1;
+    private static final int SPACE = 0;
+    private static final int ESCAPE = CODE_MASK;
+    // An escape is followed by four codes holding a char, lowest bits first.
+    private static final int ESCAPE_CODES = 4;
+    // Code offsets are stored as unsigned ints.
+    private static final long MAX_CODES = 0xFFFFFFFFL;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int masksStart;
+    private final int lengthsStart;
+    private final int codesStart;
+
+    private CompiledPhraseCorpus(Path path, ByteBuffer buffer, int size) {
+        this.path = path;
+        this.buffer = buffer;
+        this.size = size;
+        this.masksStart = HEADER_BYTES + (size + 1) * Integer.BYTES;
+        this.lengthsStart = masksStart + size * Integer.BYTES;
+        this.codesStart = lengthsStart + (size * Character.BYTES + 3 & ~3);
+    }
+
+    /**
+     * Maps a compiled corpus file.
+     *
+     * @param path the file written by {@link #compile(PhraseCorpus, Path)}
+     * @return the opened corpus
+     * @throws IOException if the file cannot be read or is not a compiled corpus
+     */
+    public static CompiledPhraseCorpus open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() >= Integer.MAX_VALUE) {
+                throw new IOException("compiled corpus too large to map: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < HEADER_BYTES || buffer.getLong(0) != MAGIC) {
+            throw new IOException("not a compiled phrase corpus: " + path);
+        }
+        if (buffer.getInt(8) != VERSION) {
+            throw new IOException("unsupported compiled corpus version " + buffer.getInt(8) + ": " + path);
+        }
+        int size = buffer.getInt(12);
+        long codes = buffer.getLong(16);
+        long expected = fileBytes(size, codes);
+        if (size < 0 || codes < 0 || codes > MAX_CODES || buffer.limit() != expected) {
+            throw new IOException("compiled corpus is truncated or damaged: " + path);
+        }
+        return new CompiledPhraseCorpus(path, buffer, size);
+    }
+
+    /**
+     * Tells whether a file is a compiled corpus, by its first bytes.
+     *
+     * @param path the file to check
+     * @return true if the file starts like a compiled corpus
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isCompiled(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (magic.hasRemaining() && channel.read(magic) > 0) {
+                // Keep reading until the magic is complete or the file ends.
+            }
+            return !magic.hasRemaining() && magic.getLong(0) == MAGIC;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String phrase(int index) {
+        checkIndex(index);
+        char[] chars = new char[length(index)];
+        long bit = Integer.toUnsignedLong(buffer.getInt(HEADER_BYTES + index * Integer.BYTES)) * CODE_BITS;
+        for (int i = 0; i < chars.length; i++) {
+            int code = code(bit);
+            bit += CODE_BITS;
+            if (code == SPACE) {
+                chars[i] = ' ';
+            } else if (code == ESCAPE) {
+                int c = 0;
+                for (int part = 0; part < ESCAPE_CODES; part++) {
+                    c |= code(bit) << (part * CODE_BITS);
+                    bit += CODE_BITS;
+                }
+                chars[i] = (char) c;
+            } else {
+                chars[i] = (char) ('a' + code - 1);
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @param index the number of the phrase
+     * @return the number of characters in the phrase
+     */
+    public int length(int index) {
+        checkIndex(index);
+        return buffer.getChar(lengthsStart + index * Character.BYTES);
+    }
+
+    /**
+     * Returns the letters of a phrase without decoding it.
+     *
+     * @param index the number of the phrase
+     * @return the mask {@link FixedOrderScorer#phraseMask(CharSequence)} gives for the phrase
+     */
+    public int letterMask(int index) {
+        checkIndex(index);
+        return buffer.getInt(masksStart + index * Integer.BYTES);
+    }
+
+    /**
+     * @return the letter mask of phrase i at index i
+     */
+    public int[] letterMasks() {
+        int[] masks = new int[size];
+        buffer.slice(masksStart, size * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(masks);
+        return masks;
+    }
+
+    // Reads the 5-bit code starting at the given bit of the packed codes.
+    private int code(long bit) {
+        int at = codesStart + (int) (bit >>> 3);
+        int word = (buffer.get(at) & 0xFF) | (buffer.get(at + 1) & 0xFF) << 8;
+        return word >>> (int) (bit & 7) & CODE_MASK;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("phrase " + index + " of " + size);
+        }
+    }
+
+    /**
+     * Normalizes a phrase the way the compiler does: letters lower-cased, whitespace runs made
+     * into single spaces and whitespace at either end dropped.
+     *
+     * @param phrase the phrase
+     * @return the normalized phrase, which is empty if the phrase was only whitespace
+     */
+    public static String normalize(CharSequence phrase) {
+        StringBuilder normalized = new StringBuilder(phrase.length());
+        boolean space = false;
+        for (int i = 0; i < phrase.length(); i++) {
+            char c = phrase.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = normalized.length() > 0;
+            } else {
+                if (space) {
+                    normalized.append(' ');
+                    space = false;
+                }
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Compiles a corpus into a binary corpus file. The file is written next to the target and
+     * then moved into place, so games sharing the old file keep a consistent view of it.
+     *
+     * @param corpus the phrases to compile
+     * @param target the file to write
+     * @return the number of phrases written, after normalizing and leaving out repeats
+     * @throws IOException if the file cannot be written, would be 2 GB or larger or hold more
+     * than 2^32 - 1 codes, or a phrase is longer than 65535 characters
+     */
+    public static int compile(PhraseCorpus corpus, Path target) throws IOException {
+        Set<String> unique = new LinkedHashSet<>();
+        for (int i = 0; i < corpus.size(); i++) {
+            String phrase = normalize(corpus.phrase(i));
+            if (!phrase.isEmpty()) {
+                unique.add(phrase);
+            }
+        }
+        List<String> phrases = new ArrayList<>(unique);
+        unique = null;
+        int size = phrases.size();
+        long codes = 0;
+        for (String phrase : phrases) {
+            if (phrase.length() > Character.MAX_VALUE) {
+                throw new IOException("phrase longer than " + (int) Character.MAX_VALUE + " characters");
+            }
+            codes += codeCount(phrase);
+        }
+        if (codes > MAX_CODES) {
+            throw new IOException("compiled corpus would hold too many codes: " + codes);
+        }
+        long bytes = fileBytes(size, codes);
+        if (bytes >= Integer.MAX_VALUE) {
+            throw new IOException("compiled corpus would be too large to map: " + bytes + " bytes");
+        }
+
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            out.order(ByteOrder.LITTLE_ENDIAN);
+            CompiledPhraseCorpus layout = new CompiledPhraseCorpus(target, out, size);
+            out.putLong(0, MAGIC);
+            out.putInt(8, VERSION);
+            out.putInt(12, size);
+            out.putLong(16, codes);
+            long code = 0;
+            for (int i = 0; i < size; i++) {
+                String phrase = phrases.get(i);
+                // Codes above 2^31 wrap to negative ints, which are read back unsigned.
+                out.putInt(HEADER_BYTES + i * Integer.BYTES, (int) code);
+                out.putInt(layout.masksStart + i * Integer.BYTES, FixedOrderScorer.phraseMask(phrase));
+                out.putChar(layout.lengthsStart + i * Character.BYTES, (char) phrase.length());
+                code = pack(out, layout.codesStart, code, phrase);
+            }
+            out.putInt(HEADER_BYTES + size * Integer.BYTES, (int) code);
+            out.force();
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return size;
+    }
+
+    private static long fileBytes(int size, long codes) {
+        long lengths = (long) size * Character.BYTES + 3 & ~3L;
+        // One spare byte lets every code be read as part of a 16-bit word.
+        long packed = (codes * CODE_BITS + 7) / 8 + 1;
+        return HEADER_BYTES + (size + 1L) * Integer.BYTES + (long) size * Integer.BYTES + lengths + packed;
+    }
+
+    private static int codeCount(String phrase) {
+        int codes = 0;
+        for (int i = 0; i < phrase.length(); i++) {
+            char c = phrase.charAt(i);
+            codes += c == ' ' || (c >= 'a' && c <= 'z') ? 1 : 1 + ESCAPE_CODES;
+        }
+        return codes;
+    }
+
+    // Writes the codes of a phrase starting at the given code and returns the code after it.
+    private static long pack(ByteBuffer out, int codesStart, long code, String phrase) {
+        for (int i = 0; i < phrase.length(); i++) {
+            char c = phrase.charAt(i);
+            if (c == ' ') {
+                putCode(out, codesStart, code++, SPACE);
+            } else if (c >= 'a' && c <= 'z') {
+                putCode(out, codesStart, code++, c - 'a' + 1);
+            } else {
+                putCode(out, codesStart, code++, ESCAPE);
+                for (int part = 0; part < ESCAPE_CODES; part++) {
+                    putCode(out, codesStart, code++, c >>> (part * CODE_BITS) & CODE_MASK);
+                }
+            }
+        }
+        return code;
+    }
+
+    private static void putCode(ByteBuffer out, int codesStart, long code, int value) {
+        long bit = code * CODE_BITS;
+        int at = codesStart + (int) (bit >>> 3);
+        int shift = (int) (bit & 7);
+        int word = (out.get(at) & 0xFF) | (out.get(at + 1) & 0xFF) << 8;
+        word |= value << shift;
+        out.put(at, (byte) word);
+        out.put(at + 1, (byte) (word >>> 8));
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledPhraseCorpus{" +
+                "path=" + path +
+                ", size=" + size +
+                '}';
+    }
+
+    /**
+     * Compiles a phrase file into a binary corpus file.
+     *
+     * @param args the phrase file, defaulting to "phrases.txt", and the file to write,
+     * defaulting to the phrase file with the extension {@value #EXTENSION}
+     * @throws IOException if the phrase file cannot be read or the corpus cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Path source = Paths.get(args.length > 0 ? args[0] : "phrases.txt");
+        String name = source.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        Path target = args.length > 1 ? Paths.get(args[1])
+                : source.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + EXTENSION);
+        PhraseCorpus corpus = PhraseCorpus.open(source);
+        long start = System.nanoTime();
+        int written = compile(corpus, target);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Compiled " + written + " of " + corpus.size() + " phrases into " + target
+                + " (" + Files.size(target) + " bytes) in " + elapsedMillis + " ms");
+    }
+}
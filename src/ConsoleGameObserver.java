@@ -0,0 +1,35 @@
+import java.io.PrintStream;
+
+/**
+ * The ConsoleGameObserver prints game events to the console, producing the same output
+ * the games have always shown. It is the default observer for interactive play.
+ */
+public class ConsoleGameObserver extends TextGameObserver {
+    private final PrintStream out;
+
+    /**
+     * Creates an observer that prints to standard output.
+     */
+    public ConsoleGameObserver() {
+        this(System.out);
+    }
+
+    /**
+     * Creates an observer that prints to the given stream.
+     *
+     * @param out the stream to print game events to
+     */
+    public ConsoleGameObserver(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    protected void writeLine(String line) {
+        out.println(line);
+    }
+
+    @Override
+    public String toString() {
+        return "ConsoleGameObserver{}";
+    }
+}
@@ -0,0 +1,78 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+
+/**
+ * The DirectGameRecordColumns class keeps the columns off the Java heap, in direct buffers
+ * allocated one fixed-size chunk at a time. The game type and strategy of a record share one
+ * int, the type in the top 8 bits and the strategy code in the rest.
+ *
+ * <p>Chunks are never copied or resized, so appending stays cheap as the columns grow, and
+ * the garbage collector only ever sees a handful of small buffer objects no matter how many
+ * records are stored.</p>
+ */
+final class DirectGameRecordColumns implements GameRecordColumns {
+    private static final int CHUNK_SHIFT = 20;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int TYPE_SHIFT = 24;
+
+    private final ArrayList<IntBuffer> scoreChunks = new ArrayList<>();
+    private final ArrayList<IntBuffer> playerIdChunks = new ArrayList<>();
+    private final ArrayList<IntBuffer> kindChunks = new ArrayList<>();
+    private final ArrayList<LongBuffer> timestampChunks = new ArrayList<>();
+    private int size;
+
+    @Override
+    public void append(int score, int playerId, int gameType, int strategy, long timestamp) {
+        int offset = size & CHUNK_MASK;
+        if (offset == 0) {
+            scoreChunks.add(allocateChunk(Integer.BYTES).asIntBuffer());
+            playerIdChunks.add(allocateChunk(Integer.BYTES).asIntBuffer());
+            kindChunks.add(allocateChunk(Integer.BYTES).asIntBuffer());
+            timestampChunks.add(allocateChunk(Long.BYTES).asLongBuffer());
+        }
+        int chunk = size >>> CHUNK_SHIFT;
+        scoreChunks.get(chunk).put(offset, score);
+        playerIdChunks.get(chunk).put(offset, playerId);
+        kindChunks.get(chunk).put(offset, gameType << TYPE_SHIFT | strategy);
+        timestampChunks.get(chunk).put(offset, timestamp);
+        size++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int score(int index) {
+        return scoreChunks.get(index >>> CHUNK_SHIFT).get(index & CHUNK_MASK);
+    }
+
+    @Override
+    public int playerId(int index) {
+        return playerIdChunks.get(index >>> CHUNK_SHIFT).get(index & CHUNK_MASK);
+    }
+
+    @Override
+    public int gameType(int index) {
+        return kindChunks.get(index >>> CHUNK_SHIFT).get(index & CHUNK_MASK) >>> TYPE_SHIFT;
+    }
+
+    @Override
+    public int strategy(int index) {
+        return kindChunks.get(index >>> CHUNK_SHIFT).get(index & CHUNK_MASK) & (MAX_STRATEGIES - 1);
+    }
+
+    @Override
+    public long timestamp(int index) {
+        return timestampChunks.get(index >>> CHUNK_SHIFT).get(index & CHUNK_MASK);
+    }
+
+    private static ByteBuffer allocateChunk(int valueBytes) {
+        return ByteBuffer.allocateDirect(CHUNK_SIZE * valueBytes).order(ByteOrder.nativeOrder());
+    }
+}
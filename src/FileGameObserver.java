@@ -0,0 +1,64 @@
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The FileGameObserver writes game events to a text file through a buffer, so a long
+ * simulation can be logged without paying for a console write on every guess.
+ *
+ * <p>The file is only guaranteed to be complete once {@link #close()} has been called.
+ * Writes are synchronized so one observer can be shared by games on several threads.</p>
+ */
+public class FileGameObserver extends TextGameObserver implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final BufferedWriter writer;
+
+    /**
+     * Creates an observer that writes to the given file, replacing any existing contents.
+     *
+     * @param path the file to write game events to
+     * @throws IOException if the file cannot be opened for writing
+     */
+    public FileGameObserver(Path path) throws IOException {
+        this.writer = new BufferedWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    @Override
+    protected synchronized void writeLine(String line) {
+        try {
+            writer.write(line);
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flushes any buffered events to the file.
+     *
+     * @throws IOException if the buffer cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Flushes any buffered events and closes the file.
+     *
+     * @throws IOException if the buffer cannot be written or the file cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    @Override
+    public String toString() {
+        return "FileGameObserver{}";
+    }
+}
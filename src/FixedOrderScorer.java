@@ -0,0 +1,250 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The FixedOrderScorer class works out the score a fixed-order player gets for a phrase
+ * without playing the game.
+ *
+ * <p>A player that always guesses the same letters in the same order (see
+ * {@link WOFInterface#guessOrder()}) wins or loses depending only on which letters the phrase
+ * contains. Its game ends at the guess that completes the phrase's letters, and it loses if
+ * it has missed as many times as it is allowed by then. The scorer precomputes, for every
+ * set of letters, which of its guesses hit: the 26 letter bits are split into two halves of
+ * 13, and two tables of 8192 longs per half map each half-set to the guess positions of its
+ * letters, all positions and first positions. Scoring a phrase mask is then four table
+ * lookups and a handful of bit operations, so a whole corpus of precomputed masks is scored
+ * in a few nanoseconds per phrase.</p>
+ *
+ * <p>Repeated letters in the order, like the second 'u' of the vowel-first player, count as
+ * hits if the letter is in the phrase and as misses if not, just as in a played game. A
+ * phrase holding characters that no letter guess reveals can never be won and scores 0.</p>
+ */
+public final class FixedOrderScorer {
+    /** Set in a phrase mask if the phrase hides characters other than the letters 'a' to 'z'. */
+    public static final int UNREVEALABLE = 1 << 26;
+    /** The longest guess order a scorer handles, one bit of a long per guess. */
+    public static final int MAX_ORDER_LENGTH = 64;
+
+    private static final int HALF_BITS = 13;
+    private static final int HALF_SIZE = 1 << HALF_BITS;
+    private static final ConcurrentHashMap<String, FixedOrderScorer> SCORERS = new ConcurrentHashMap<>();
+
+    private final String guessOrder;
+    private final int wrongAnswers;
+    // For each half of a letter set, the guess positions of its letters.
+    private final long[] lowPositions = new long[HALF_SIZE];
+    private final long[] highPositions = new long[HALF_SIZE];
+    // For each half of a letter set, the first guess position of each of its letters.
+    private final long[] lowFirstPositions = new long[HALF_SIZE];
+    private final long[] highFirstPositions = new long[HALF_SIZE];
+
+    /**
+     * Creates a scorer for a guess order.
+     *
+     * @param guessOrder the letters the player guesses, in order, each from 'a' to 'z'
+     * @param wrongAnswers the number of wrong answers the player is allowed
+     * @throws IllegalArgumentException if the order is empty, too long or holds other characters
+     */
+    public FixedOrderScorer(String guessOrder, int wrongAnswers) {
+        if (guessOrder.isEmpty() || guessOrder.length() > MAX_ORDER_LENGTH) {
+            throw new IllegalArgumentException("guess order must have 1 to " + MAX_ORDER_LENGTH + " letters: " + guessOrder);
+        }
+        this.guessOrder = guessOrder;
+        this.wrongAnswers = wrongAnswers;
+        long[] positions = new long[26];
+        long[] firstPositions = new long[26];
+        for (int i = 0; i < guessOrder.length(); i++) {
+            char letter = guessOrder.charAt(i);
+            if (letter < 'a' || letter > 'z') {
+                throw new IllegalArgumentException("guess order may only hold 'a' to 'z': " + guessOrder);
+            }
+            if (positions[letter - 'a'] == 0) {
+                firstPositions[letter - 'a'] = 1L << i;
+            }
+            positions[letter - 'a'] |= 1L << i;
+        }
+        fill(lowPositions, positions, 0);
+        fill(highPositions, positions, HALF_BITS);
+        fill(lowFirstPositions, firstPositions, 0);
+        fill(highFirstPositions, firstPositions, HALF_BITS);
+    }
+
+    // Each set is the set without its lowest letter plus that letter.
+    private static void fill(long[] table, long[] letterPositions, int firstLetter) {
+        for (int set = 1; set < HALF_SIZE; set++) {
+            int letter = firstLetter + Integer.numberOfTrailingZeros(set);
+            table[set] = table[set & (set - 1)] | (letter < 26 ? letterPositions[letter] : 0);
+        }
+    }
+
+    /**
+     * Returns the scorer for a player, if the player guesses in a fixed order. Scorers are
+     * shared by every player with the same order and wrong answers.
+     *
+     * @param player the player
+     * @param wrongAnswers the number of wrong answers the player is allowed
+     * @return the scorer, or null if the player does not guess in a fixed order
+     * @throws IllegalArgumentException if the player's order cannot be scored
+     */
+    public static FixedOrderScorer of(WOFInterface player, int wrongAnswers) {
+        String guessOrder = player.guessOrder();
+        if (guessOrder == null) {
+            return null;
+        }
+        return SCORERS.computeIfAbsent(wrongAnswers + ":" + guessOrder, key -> new FixedOrderScorer(guessOrder, wrongAnswers));
+    }
+
+    /**
+     * Returns the scorer for a player's games, if they may be scored without being played. A
+     * scored game sends no events and counts no {@link GameMetrics}, so games are only scored
+     * when the observer is quiet and metrics are off; otherwise they must be played.
+     *
+     * @param player the player
+     * @param wrongAnswers the number of wrong answers the player is allowed
+     * @param observer the observer that receives the games' events
+     * @return the scorer, or null if the player's games must be played
+     * @throws IllegalArgumentException if the player's order cannot be scored
+     */
+    public static FixedOrderScorer of(WOFInterface player, int wrongAnswers, GameObserver observer) {
+        return observer.isQuiet() && !GameMetrics.ENABLED ? of(player, wrongAnswers) : null;
+    }
+
+    /**
+     * Works out which letters a phrase hides.
+     *
+     * @param phrase the phrase
+     * @return the letters 'a' to 'z' in the phrase as a {@link LetterMask}, plus
+     * {@link #UNREVEALABLE} if it hides any other character
+     */
+    public static int phraseMask(CharSequence phrase) {
+        int mask = 0;
+        for (int i = 0; i < phrase.length(); i++) {
+            char c = phrase.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                mask |= 1 << (c - 'a');
+            } else if (c != ' ' && c != '*') {
+                // Spaces are never hidden, and a '*' already looks revealed.
+                mask |= UNREVEALABLE;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Works out the phrase mask of every phrase in a corpus. A compiled corpus already holds
+     * them, so they are copied without decoding a phrase.
+     *
+     * @param corpus the corpus
+     * @return the mask of phrase i at index i
+     */
+    public static int[] phraseMasks(PhraseCorpus corpus) {
+        if (corpus instanceof CompiledPhraseCorpus compiled) {
+            return compiled.letterMasks();
+        }
+        int[] masks = new int[corpus.size()];
+        for (int i = 0; i < masks.length; i++) {
+            masks[i] = phraseMask(corpus.phrase(i));
+        }
+        return masks;
+    }
+
+    /**
+     * Works out the score for a phrase, the same score {@link WOFGameContext#calculateScore}
+     * gives after the player has played it.
+     *
+     * @param phraseMask the mask from {@link #phraseMask(CharSequence)}
+     * @return the score
+     */
+    public int score(int phraseMask) {
+        if ((phraseMask & UNREVEALABLE) != 0) {
+            return 0;
+        }
+        int low = phraseMask & (HALF_SIZE - 1);
+        int high = phraseMask >>> HALF_BITS;
+        long firstPositions = lowFirstPositions[low] | highFirstPositions[high];
+        if (Long.bitCount(firstPositions) != Integer.bitCount(phraseMask)) {
+            // The order never guesses some letter of the phrase.
+            return 0;
+        }
+        if (phraseMask == 0) {
+            // Nothing is hidden, but the game still takes one guess, which misses.
+            return Math.max(0, wrongAnswers - 1) * 10;
+        }
+        int guesses = 64 - Long.numberOfLeadingZeros(firstPositions);
+        long hits = (lowPositions[low] | highPositions[high]) & (-1L >>> (64 - guesses));
+        int misses = guesses - Long.bitCount(hits);
+        return misses < wrongAnswers ? (wrongAnswers - misses) * 10 : 0;
+    }
+
+    /**
+     * Works out the score for a phrase.
+     *
+     * @param phrase the phrase
+     * @return the score
+     */
+    public int score(CharSequence phrase) {
+        return score(phraseMask(phrase));
+    }
+
+    /**
+     * Adds up the scores for many phrases.
+     *
+     * @param phraseMasks the masks of the phrases
+     * @return the total score
+     */
+    public long totalScore(int[] phraseMasks) {
+        long total = 0;
+        for (int mask : phraseMasks) {
+            total += score(mask);
+        }
+        return total;
+    }
+
+    /**
+     * @return the letters the player guesses, in order
+     */
+    public String getGuessOrder() {
+        return guessOrder;
+    }
+
+    /**
+     * @return the number of wrong answers the player is allowed
+     */
+    public int getWrongAnswers() {
+        return wrongAnswers;
+    }
+
+    /**
+     * Scores the built-in fixed-order players over a phrase file and prints their averages and
+     * how long the letters of the phrases and the scoring took.
+     *
+     * @param args the phrase file; defaults to {@link PhraseCorpus#defaultPath()}
+     * @throws IOException if the phrase file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        PhraseCorpus corpus = PhraseCorpus.open(args.length > 0 ? Paths.get(args[0]) : PhraseCorpus.defaultPath());
+        long start = System.nanoTime();
+        int[] masks = phraseMasks(corpus);
+        System.out.println("Found the letters of " + masks.length + " phrases in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+
+        AllGameRecord allGames = new AllGameRecord();
+        for (WOFInterface player : List.of(new WOFICommon(allGames), new WOFIVowelFirst(allGames))) {
+            FixedOrderScorer scorer = of(player, 10);
+            start = System.nanoTime();
+            long total = scorer.totalScore(masks);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println(player.getClass().getName() + " averages " + (masks.length == 0 ? 0 : (double) total / masks.length)
+                    + ", scored in " + elapsedMillis + " ms");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FixedOrderScorer{" +
+                "guessOrder=" + guessOrder +
+                ", wrongAnswers=" + wrongAnswers +
+                '}';
+    }
+}
@@ -0,0 +1,173 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The GameMetrics class counts what the games do while they run: games played, guesses per
+ * game, how long each kind of player takes to decide on a guess and how long recording a game
+ * takes. Latencies go into lock-free {@link LogHistogram}s and counts into striped adders, so
+ * games on many threads can report at once without contending.
+ *
+ * <p>Metrics are off unless the program is started with {@code -Dwof.metrics=true}. The switch
+ * is a static final constant, so when it is off the JIT removes the instrumentation from the
+ * game loops entirely. When it is on, the metrics are registered as the JMX MXBean
+ * {@value #OBJECT_NAME} and can be read from JConsole, VisualVM or any other JMX client.</p>
+ *
+ * <p>Everything counted here starts again from zero on {@link #reset()}, except the size of the
+ * record store, which is read from the store itself (see {@link #watchRecordStore}) so it always
+ * matches what the store holds.</p>
+ */
+public final class GameMetrics implements GameMetricsMXBean {
+    /** The system property that turns metrics on. */
+    public static final String ENABLED_PROPERTY = "wof.metrics";
+    /** Whether metrics are collected; fixed when the class is loaded. */
+    public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+    /** The JMX name the metrics are registered under. */
+    public static final String OBJECT_NAME = "wofmastermind:type=GameMetrics";
+
+    private final LongAdder gamesPlayed = new LongAdder();
+    private final LongAdder recordsStoredSinceReset = new LongAdder();
+    private final LogHistogram guessesPerGame = new LogHistogram();
+    private final LogHistogram recordLatency = new LogHistogram();
+    private final ConcurrentHashMap<Class<?>, LogHistogram> decisionLatency = new ConcurrentHashMap<>();
+    private volatile long startNanos = System.nanoTime();
+    private volatile LongSupplier recordStoreSize = () -> 0;
+
+    private GameMetrics() {
+    }
+
+    /**
+     * Returns the metrics of this program, registering them with JMX the first time.
+     *
+     * @return the shared metrics
+     */
+    public static GameMetrics get() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        static final GameMetrics INSTANCE = register(new GameMetrics());
+
+        private static GameMetrics register(GameMetrics metrics) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                throw new IllegalStateException("cannot register " + OBJECT_NAME, e);
+            }
+            return metrics;
+        }
+    }
+
+    /**
+     * Returns the histogram a player's guess decisions are timed in. Players of the same class
+     * share one histogram. Look it up once per game rather than once per guess.
+     *
+     * @param player the player making guesses
+     * @return the histogram of the player's class
+     */
+    public LogHistogram decisionLatency(Object player) {
+        return decisionLatency.computeIfAbsent(player.getClass(), c -> new LogHistogram());
+    }
+
+    /**
+     * Reports the given size as the size of the record store, typically the AllGameRecord a
+     * program keeps its games in. Only the last store watched is reported.
+     *
+     * @param size reads the number of records the store holds
+     */
+    public void watchRecordStore(LongSupplier size) {
+        recordStoreSize = size;
+    }
+
+    /**
+     * Counts a game that was played to the end.
+     *
+     * @param guesses the number of guesses made in the game
+     */
+    public void gamePlayed(int guesses) {
+        gamesPlayed.increment();
+        guessesPerGame.record(guesses);
+    }
+
+    /**
+     * Counts a game record that was stored.
+     *
+     * @param nanos how long storing it took
+     */
+    public void recordStored(long nanos) {
+        recordsStoredSinceReset.increment();
+        recordLatency.record(nanos);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    @Override
+    public long getGamesPlayed() {
+        return gamesPlayed.sum();
+    }
+
+    @Override
+    public double getGamesPerSecond() {
+        long elapsed = System.nanoTime() - startNanos;
+        return elapsed <= 0 ? 0 : gamesPlayed.sum() * 1e9 / elapsed;
+    }
+
+    @Override
+    public LogHistogram.Snapshot getGuessesPerGame() {
+        return guessesPerGame.snapshot();
+    }
+
+    @Override
+    public Map<String, LogHistogram.Snapshot> getDecisionLatency() {
+        Map<String, LogHistogram.Snapshot> snapshots = new TreeMap<>();
+        decisionLatency.forEach((type, histogram) -> snapshots.put(type.getName(), histogram.snapshot()));
+        return snapshots;
+    }
+
+    @Override
+    public LogHistogram.Snapshot getRecordLatency() {
+        return recordLatency.snapshot();
+    }
+
+    @Override
+    public long getRecordsStoredSinceReset() {
+        return recordsStoredSinceReset.sum();
+    }
+
+    @Override
+    public long getRecordStoreSize() {
+        return recordStoreSize.getAsLong();
+    }
+
+    @Override
+    public void reset() {
+        gamesPlayed.reset();
+        recordsStoredSinceReset.reset();
+        guessesPerGame.reset();
+        recordLatency.reset();
+        decisionLatency.values().forEach(LogHistogram::reset);
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append("Games played: ").append(getGamesPlayed())
+                .append(String.format(" (%.0f per second)", getGamesPerSecond())).append('\n');
+        text.append("Guesses per game: ").append(getGuessesPerGame()).append('\n');
+        getDecisionLatency().forEach((type, snapshot) ->
+                text.append("Guess decision ns, ").append(type).append(": ").append(snapshot).append('\n'));
+        text.append("Records stored since reset: ").append(getRecordsStoredSinceReset())
+                .append(" (store holds ").append(getRecordStoreSize()).append(')').append('\n');
+        text.append("Record ns: ").append(getRecordLatency());
+        return text.toString();
+    }
+}
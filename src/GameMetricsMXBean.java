@@ -0,0 +1,53 @@
+import java.util.Map;
+
+/**
+ * The GameMetricsMXBean interface is the JMX view of {@link GameMetrics}. Every attribute is
+ * read as a snapshot, so tools such as JConsole or VisualVM can poll them while games run.
+ */
+public interface GameMetricsMXBean {
+
+    /**
+     * @return whether the games were started with metrics enabled
+     */
+    boolean isEnabled();
+
+    /**
+     * @return the number of games played to the end since the metrics were last reset
+     */
+    long getGamesPlayed();
+
+    /**
+     * @return the games played per second since the metrics were last reset
+     */
+    double getGamesPerSecond();
+
+    /**
+     * @return the number of guesses in each game
+     */
+    LogHistogram.Snapshot getGuessesPerGame();
+
+    /**
+     * @return the nanoseconds each kind of player took to decide on a guess, by player class
+     */
+    Map<String, LogHistogram.Snapshot> getDecisionLatency();
+
+    /**
+     * @return the nanoseconds it took to record a game in an AllGameRecord
+     */
+    LogHistogram.Snapshot getRecordLatency();
+
+    /**
+     * @return the number of game records stored in all AllGameRecords since the metrics were last reset
+     */
+    long getRecordsStoredSinceReset();
+
+    /**
+     * @return the number of game records the watched record store holds, which a reset does not change
+     */
+    long getRecordStoreSize();
+
+    /**
+     * Starts counting again from zero. The record store size is read from the store, so it is kept.
+     */
+    void reset();
+}
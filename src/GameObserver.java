@@ -0,0 +1,103 @@
+/**
+ * The GameObserver interface receives the events emitted while a game is played.
+ * Games report what happens (a game starting, a guess being made, a letter being revealed,
+ * the game being won or lost and the record being written) and the observer decides what,
+ * if anything, to do with it.
+ *
+ * <p>This keeps console output out of the game loops, so the same game can print to the
+ * console, log to a file, or run completely quiet during bulk simulation.</p>
+ */
+public interface GameObserver {
+
+    /**
+     * Reports a general message that is not tied to a single guess, such as a banner
+     * describing which game is being started.
+     *
+     * @param message the message to report
+     */
+    void message(String message);
+
+    /**
+     * Reports that a new game has started for the given player.
+     *
+     * @param playerId the ID of the player starting the game
+     * @param hiddenPhrase the concealed phrase (or code) the player is trying to guess
+     */
+    void gameStarted(int playerId, CharSequence hiddenPhrase);
+
+    /**
+     * Reports that the game is about to ask the player for their next guess.
+     *
+     * @param playerId the ID of the player being asked
+     * @param previousGuesses the letters or codes that have already been guessed
+     * @param hiddenPhrase the current state of the concealed phrase
+     */
+    void guessRequested(int playerId, CharSequence previousGuesses, CharSequence hiddenPhrase);
+
+    /**
+     * Reports the guess a player has made.
+     *
+     * @param playerId the ID of the player who guessed
+     * @param guess the guess that was made
+     */
+    void guessMade(int playerId, String guess);
+
+    /**
+     * Reports that a guessed letter was found in the phrase.
+     *
+     * @param playerId the ID of the player who guessed
+     * @param letter the letter that was revealed
+     * @param hiddenPhrase the concealed phrase after the letter was revealed
+     */
+    void letterRevealed(int playerId, char letter, CharSequence hiddenPhrase);
+
+    /**
+     * Reports that a guessed letter was not found in the phrase.
+     *
+     * @param playerId the ID of the player who guessed
+     * @param letter the letter that was missed
+     * @param wrongAnswersLeft the number of wrong answers the player has left
+     */
+    void letterMissed(int playerId, char letter, int wrongAnswersLeft);
+
+    /**
+     * Reports the feedback given for a Mastermind guess that did not win the game.
+     *
+     * @param playerId the ID of the player who guessed
+     * @param guess the guessed code
+     * @param exactMatches the number of colors in the right position
+     * @param partialMatches the number of colors present but in the wrong position
+     */
+    void codeScored(int playerId, String guess, int exactMatches, int partialMatches);
+
+    /**
+     * Reports that the player has won the current game.
+     *
+     * @param playerId the ID of the winning player
+     */
+    void gameWon(int playerId);
+
+    /**
+     * Reports that the player has lost the current game.
+     *
+     * @param playerId the ID of the losing player
+     */
+    void gameLost(int playerId);
+
+    /**
+     * Reports that the result of a game has been written to the game records.
+     *
+     * @param record the record that was written
+     */
+    void recordWritten(GameRecord record);
+
+    /**
+     * Tells games whether this observer ignores every event. Games nobody watches may skip the
+     * guesses and work out only their score.
+     *
+     * @return true if the observer does nothing with any event
+     */
+    default boolean isQuiet() {
+        return false;
+    }
+}
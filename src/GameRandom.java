@@ -0,0 +1,97 @@
+import java.util.SplittableRandom;
+
+/**
+ * The GameRandom class is the single source of randomness for games, players and tournaments.
+ * It is an immutable seed from which independent random streams are derived by key, so the
+ * same seed always produces the same phrases, secret codes and random guesses, no matter how
+ * many threads play the games or in which order they run.
+ *
+ * <p>A tournament splits its GameRandom by player and then by game, and hands each game its
+ * own {@link SplittableRandom}. Nothing is shared between games, so parallel workers draw
+ * without locking, and any single game can be replayed from the seed and its keys.</p>
+ *
+ * <p>Keys must be fixed by the run itself, such as a player's position or the number of a
+ * session since the program started, and never by state loaded from disk. Player IDs, for
+ * one, continue from the records recovered from the journal, so keying streams by them would
+ * give the same seed different games from one run to the next.</p>
+ *
+ * <p>The seed of {@link #defaults()} can be fixed with the system property "wof.seed"
+ * (for example {@code -Dwof.seed=42}) to replay a whole run.</p>
+ */
+public final class GameRandom {
+    /** The system property that fixes the seed of {@link #defaults()}. */
+    public static final String SEED_PROPERTY = "wof.seed";
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+
+    /**
+     * Creates a source of randomness from a fixed seed.
+     *
+     * @param seed the seed every derived stream depends on
+     */
+    public GameRandom(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Returns a source seeded from the "wof.seed" system property, or from a fresh random
+     * seed if the property is not set.
+     *
+     * @return the source of randomness for this run
+     */
+    public static GameRandom defaults() {
+        String seed = System.getProperty(SEED_PROPERTY);
+        return seed != null ? new GameRandom(Long.parseLong(seed.trim())) : unseeded();
+    }
+
+    /**
+     * @return a source with a fresh random seed, different on every call
+     */
+    public static GameRandom unseeded() {
+        return new GameRandom(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * @return the seed, which can be passed to {@link #GameRandom(long)} to replay this source
+     */
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * Derives an independent source for a key, such as a player or game number. The same
+     * seed and key always give the same source.
+     *
+     * @param key the key of the derived source
+     * @return the derived source
+     */
+    public GameRandom split(long key) {
+        return new GameRandom(mix(seed + mix(key + GOLDEN_GAMMA)));
+    }
+
+    /**
+     * Creates a generator that draws the random stream of this source from its start.
+     * A generator is not thread-safe and should be used by one game or thread.
+     *
+     * @return a new generator seeded with this source's seed
+     */
+    public SplittableRandom generator() {
+        return new SplittableRandom(seed);
+    }
+
+    // The SplitMix64 finalizer, which spreads nearby seeds and keys over unrelated streams.
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public String toString() {
+        return "GameRandom{" +
+                "seed=" + seed +
+                '}';
+    }
+}
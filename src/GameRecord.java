@@ -1,10 +1,41 @@
 public class GameRecord implements Comparable<GameRecord>{
+    //strategy recorded for games played by a person rather than an AI player
+    public static final String HUMAN = "human";
+
     int score;
     int playerId;
+    GameType gameType;
+    //identity of the player's strategy, such as WOFInterface.fingerprint(); null if not known
+    String strategy;
+    //when the game was recorded, in milliseconds since the epoch
+    long timestamp;
 
     public GameRecord(int score, int playerId){
+        this(score, playerId, GameType.UNKNOWN, null, System.currentTimeMillis());
+    }
+
+    public GameRecord(int score, int playerId, GameType gameType, String strategy){
+        this(score, playerId, gameType, strategy, System.currentTimeMillis());
+    }
+
+    public GameRecord(int score, int playerId, GameType gameType, String strategy, long timestamp){
         this.score = score;
         this.playerId = playerId;
+        this.gameType = gameType;
+        this.strategy = strategy;
+        this.timestamp = timestamp;
+    }
+
+    public GameType getGameType() {
+        return gameType;
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
     }
 
     @Override
@@ -14,7 +45,11 @@ public class GameRecord implements Comparable<GameRecord>{
 
     @Override
     public String toString() {
-        return "Player ID: " + playerId + ", Score: " + score;
+        if (gameType == GameType.UNKNOWN) {
+            return "Player ID: " + playerId + ", Score: " + score;
+        }
+        return "Player ID: " + playerId + ", Score: " + score + ", Game: " + gameType
+                + (strategy == null ? "" : " (" + strategy + ")");
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+/**
+ * The GameRecordColumns interface stores game records column by column: columns of scores,
+ * player IDs, game types, strategies and timestamps, all held as primitives. Record
+ * {@code i} is the set of values found at position {@code i} of each column.
+ *
+ * <p>Storing the fields side by side instead of as GameRecord objects removes the object
+ * header and reference kept for every game, which dominates the heap once hundreds of
+ * millions of games have been recorded. Game types are stored as {@link GameType} ordinals and
+ * strategies as the codes AllGameRecord gives their names; implementations may pack the two
+ * into one int, so a strategy code must stay below {@link #MAX_STRATEGIES}. Implementations are
+ * not thread-safe; AllGameRecord guards each set of columns with its own lock.</p>
+ */
+interface GameRecordColumns {
+    /** The number of strategy codes the columns can hold. */
+    int MAX_STRATEGIES = 1 << 24;
+
+    /**
+     * Appends one record to the end of the columns.
+     *
+     * @param score the score of the game
+     * @param playerId the ID of the player who played the game
+     * @param gameType the ordinal of the game's type
+     * @param strategy the code of the player's strategy, from 0 to MAX_STRATEGIES - 1
+     * @param timestamp when the game was recorded, in milliseconds since the epoch
+     */
+    void append(int score, int playerId, int gameType, int strategy, long timestamp);
+
+    /**
+     * @return the number of records stored
+     */
+    int size();
+
+    /**
+     * @param index the position of the record, from 0 to size() - 1
+     * @return the score of the record at that position
+     */
+    int score(int index);
+
+    /**
+     * @param index the position of the record, from 0 to size() - 1
+     * @return the player ID of the record at that position
+     */
+    int playerId(int index);
+
+    /**
+     * @param index the position of the record, from 0 to size() - 1
+     * @return the ordinal of the game type of the record at that position
+     */
+    int gameType(int index);
+
+    /**
+     * @param index the position of the record, from 0 to size() - 1
+     * @return the strategy code of the record at that position
+     */
+    int strategy(int index);
+
+    /**
+     * @param index the position of the record, from 0 to size() - 1
+     * @return when the record at that position was recorded, in milliseconds since the epoch
+     */
+    long timestamp(int index);
+}
@@ -0,0 +1,444 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The GameRecordJournal class keeps a durable, append-only copy of every game record in a
+ * directory of memory-mapped segment files, so the records survive the end of the program.
+ *
+ * <p>Appending a record takes no lock and flushes nothing on the caller's thread: it reserves
+ * the next slot of the current segment with an atomic increment, copies a few ints into
+ * mapped memory and marks the slot written in a bitmap. A background thread makes the records
+ * durable in groups: every few milliseconds it flushes the mapped pages and then advances the
+ * committed record count in the segment header to the end of the slots written without a gap.
+ * It also creates the next segment once the current one is half full, so the append that
+ * fills a segment only has to switch to it. After a crash, everything up to the last group
+ * commit is recovered.</p>
+ *
+ * <p>Each segment starts with a 16-byte header (magic, format version, record size and the
+ * committed record count) followed by fixed-size records of score, player ID, game type and
+ * strategy code (packed into one int) and timestamp. Segments written by version 1, whose
+ * records hold only score and player ID, are still read; their games are recovered with an
+ * unknown type and strategy and a timestamp of 0, and new records go to a new segment. The
+ * strategy names the codes stand for are kept in a separate file, each name written and
+ * flushed the first time it is used, before any record that refers to it. Recovery reads the
+ * names and then the segments in order, adds every committed record to a new AllGameRecord
+ * and moves its player ID counter past the highest player ID found.</p>
+ */
+public class GameRecordJournal implements Closeable {
+    private static final int MAGIC = 0x574F464A; // "WOFJ"
+    private static final int VERSION = 2;
+    private static final int HEADER_INTS = 4;
+    private static final int HEADER_BYTES = HEADER_INTS * Integer.BYTES;
+    private static final int RECORD_INTS = 5;
+    private static final int V1_RECORD_INTS = 2;
+    private static final int TYPE_SHIFT = 24;
+    private static final int COUNT_INDEX = 3;
+    private static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+    private static final long COMMIT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String STRATEGIES_FILE = "strategies";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final Thread committer;
+    private final FileChannel strategyFile;
+    // Strategy names in the order they were written; name i has code i + 1.
+    private final List<String> strategies;
+    // Guarded by this, which is only taken when a segment fills up.
+    private volatile Segment current;
+    // Full segments whose last records may not be committed yet; guarded by this.
+    private final List<Segment> retired = new ArrayList<>();
+    // Held while committing, so commits by the committer and close() do not interleave.
+    private final Object commitLock = new Object();
+    private volatile boolean closed;
+
+    /**
+     * Opens the journal in the given directory, creating the directory if needed.
+     *
+     * @param directory the directory that holds the segment files
+     * @throws IOException if the directory or its segments cannot be opened
+     */
+    public GameRecordJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Opens the journal in the given directory with segments of the given size.
+     *
+     * @param directory the directory that holds the segment files
+     * @param segmentBytes the size of each segment file in bytes
+     * @throws IOException if the directory or its segments cannot be opened
+     */
+    public GameRecordJournal(Path directory, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        strategyFile = FileChannel.open(directory.resolve(STRATEGIES_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        strategies = readStrategies(strategyFile);
+        List<Path> segments = segmentFiles();
+        if (segments.isEmpty()) {
+            current = Segment.create(segmentPath(0), 0, segmentBytes);
+        } else {
+            Path last = segments.get(segments.size() - 1);
+            current = Segment.open(last, segments.size() - 1);
+            if (current.version != VERSION) {
+                current = Segment.create(segmentPath(segments.size()), segments.size(), segmentBytes);
+            }
+        }
+        committer = new Thread(this::commitLoop, "game-record-journal");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    /**
+     * Reads every committed record in the journal into a new AllGameRecord, then attaches
+     * this journal to it so that every record added from now on is journaled as well.
+     *
+     * @return a league holding all recovered records, with its player ID counter restored
+     * @throws IOException if a segment cannot be read
+     */
+    public AllGameRecord recover() throws IOException {
+        AllGameRecord allGameRecords = new AllGameRecord();
+        String[] names = new String[strategies.size() + 1];
+        for (int i = 0; i < strategies.size(); i++) {
+            names[i + 1] = strategies.get(i);
+            // Registering the names in order gives them the codes they were journaled with.
+            allGameRecords.strategyCode(names[i + 1]);
+        }
+        int maxPlayerId = 0;
+        for (Path path : segmentFiles()) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                IntBuffer ints = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                        .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+                int version = checkHeader(path, ints);
+                int recordInts = version == VERSION ? RECORD_INTS : V1_RECORD_INTS;
+                int count = ints.get(COUNT_INDEX);
+                for (int i = 0, at = HEADER_INTS; i < count; i++, at += recordInts) {
+                    int score = ints.get(at);
+                    int playerId = ints.get(at + 1);
+                    if (version == VERSION) {
+                        int kind = ints.get(at + 2);
+                        int strategy = kind & (GameRecordColumns.MAX_STRATEGIES - 1);
+                        long timestamp = ints.get(at + 3) & 0xFFFFFFFFL | (long) ints.get(at + 4) << 32;
+                        allGameRecords.add(score, playerId, GameType.of(kind >>> TYPE_SHIFT),
+                                strategy < names.length ? names[strategy] : null, timestamp);
+                    } else {
+                        allGameRecords.add(score, playerId, GameType.UNKNOWN, null, 0);
+                    }
+                    if (playerId > maxPlayerId) {
+                        maxPlayerId = playerId;
+                    }
+                }
+            }
+        }
+        allGameRecords.advancePlayerIdTo(maxPlayerId);
+        allGameRecords.setJournal(this);
+        return allGameRecords;
+    }
+
+    /**
+     * Appends one record to the journal. The record becomes durable at the next group commit.
+     *
+     * @param score the score of the game
+     * @param playerId the ID of the player who played the game
+     * @param gameType the ordinal of the game's type
+     * @param strategy the code of the player's strategy, 0 if unknown
+     * @param timestamp when the game was recorded, in milliseconds since the epoch
+     */
+    public void append(int score, int playerId, int gameType, int strategy, long timestamp) {
+        if (closed) {
+            throw new IllegalStateException("journal is closed");
+        }
+        int kind = gameType << TYPE_SHIFT | strategy;
+        while (true) {
+            Segment segment = current;
+            int slot = segment.reserved.getAndIncrement();
+            if (slot < segment.capacity) {
+                segment.write(slot, score, playerId, kind, timestamp);
+                return;
+            }
+            rollOver(segment);
+        }
+    }
+
+    /**
+     * Writes the name of a new strategy and makes it durable at once, so no journaled record
+     * can refer to a strategy whose name was lost. Names must be appended in the order of
+     * their codes, starting from code 1.
+     *
+     * @param name the name of the strategy
+     */
+    public synchronized void appendStrategy(String name) {
+        if (closed) {
+            throw new IllegalStateException("journal is closed");
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("strategy name too long: " + bytes.length + " bytes");
+        }
+        ByteBuffer entry = ByteBuffer.allocate(Short.BYTES + bytes.length).order(ByteOrder.LITTLE_ENDIAN);
+        entry.putShort((short) bytes.length).put(bytes).flip();
+        try {
+            long position = strategyFile.size();
+            while (entry.hasRemaining()) {
+                position += strategyFile.write(entry, position);
+            }
+            strategyFile.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        strategies.add(name);
+    }
+
+    /**
+     * Makes every record whose append has returned durable.
+     */
+    public void commit() {
+        synchronized (commitLock) {
+            List<Segment> segments;
+            Segment segment;
+            synchronized (this) {
+                segments = new ArrayList<>(retired);
+                segment = current;
+            }
+            // Full segments first, so records become durable in the order of their segments.
+            for (Segment full : segments) {
+                full.commitWritten();
+                if (full.committed == full.capacity) {
+                    synchronized (this) {
+                        retired.remove(full);
+                    }
+                }
+            }
+            segment.commitWritten();
+            if (!closed && segment.reserved.get() >= segment.capacity / 2) {
+                prepareNext(segment);
+            }
+        }
+    }
+
+    /**
+     * Commits any outstanding records and stops the background commit thread.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        committer.interrupt();
+        commit();
+        synchronized (this) {
+            try {
+                strategyFile.close();
+            } catch (IOException e) {
+                // The names were flushed as they were written.
+            }
+        }
+    }
+
+    private void commitLoop() {
+        while (!closed) {
+            LockSupport.parkNanos(COMMIT_INTERVAL_NANOS);
+            if (!closed) {
+                commit();
+            }
+        }
+    }
+
+    // Makes the segment after the full one current, unless another append already has. Its
+    // records are committed by the committer once every reserved slot has been written.
+    private synchronized void rollOver(Segment full) {
+        if (current != full) {
+            return;
+        }
+        retired.add(full);
+        // The committer creates the next segment long before this one fills, so creating it
+        // here only happens if the committer fell behind.
+        current = full.next != null ? full.next : createSegment(full.number + 1);
+    }
+
+    // Creates the next segment ahead of time on the committer's thread.
+    private synchronized void prepareNext(Segment segment) {
+        if (current == segment && segment.next == null) {
+            segment.next = createSegment(segment.number + 1);
+        }
+    }
+
+    private Segment createSegment(int number) {
+        try {
+            return Segment.create(segmentPath(number), number, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        // Segment numbers are zero-padded, so name order is append order.
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private Path segmentPath(int number) {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    // Returns the format version of the segment.
+    private static int checkHeader(Path path, IntBuffer ints) throws IOException {
+        if (ints.limit() < HEADER_INTS || ints.get(0) != MAGIC) {
+            throw new IOException("not a game record journal segment: " + path);
+        }
+        int version = ints.get(1);
+        int recordBytes = ints.get(2);
+        if (!(version == VERSION && recordBytes == RECORD_INTS * Integer.BYTES)
+                && !(version == 1 && recordBytes == V1_RECORD_INTS * Integer.BYTES)) {
+            throw new IOException("unsupported game record journal segment version " + version + ": " + path);
+        }
+        return version;
+    }
+
+    // Reads the strategy names and cuts off a name left half-written by a crash.
+    private static List<String> readStrategies(FileChannel channel) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        while (bytes.hasRemaining() && channel.read(bytes, bytes.position()) > 0) {
+            // Keep reading until the whole file is in memory.
+        }
+        bytes.flip();
+        List<String> names = new ArrayList<>();
+        while (bytes.remaining() >= Short.BYTES) {
+            int length = Short.toUnsignedInt(bytes.getShort(bytes.position()));
+            if (bytes.remaining() < Short.BYTES + length) {
+                break;
+            }
+            bytes.position(bytes.position() + Short.BYTES);
+            names.add(new String(bytes.array(), bytes.position(), length, StandardCharsets.UTF_8));
+            bytes.position(bytes.position() + length);
+        }
+        channel.truncate(bytes.position());
+        return names;
+    }
+
+    @Override
+    public String toString() {
+        return "GameRecordJournal{" +
+                "directory=" + directory +
+                '}';
+    }
+
+    /**
+     * One mapped segment file. Appends reserve slots with {@link #reserved} and mark them in
+     * {@link #written} once their ints are in place; only the committer reads the bitmap and
+     * advances {@link #committed}.
+     */
+    private static final class Segment {
+        private final int number;
+        private int version = VERSION;
+        private final MappedByteBuffer buffer;
+        private final IntBuffer ints;
+        private final int capacity;
+        // The next free slot; may run past the capacity once the segment is full.
+        private final AtomicInteger reserved = new AtomicInteger();
+        // One bit per slot, set once the slot's record is written.
+        private final AtomicLongArray written;
+        private volatile int committed;
+        // The segment to switch to once this one is full; guarded by the journal's lock.
+        private Segment next;
+
+        private Segment(int number, MappedByteBuffer buffer) {
+            this.number = number;
+            this.buffer = buffer;
+            this.ints = buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            this.capacity = (ints.limit() - HEADER_INTS) / RECORD_INTS;
+            this.written = new AtomicLongArray((capacity + Long.SIZE - 1) / Long.SIZE);
+        }
+
+        static Segment create(Path path, int number, long segmentBytes) throws IOException {
+            Segment segment = new Segment(number, map(path, segmentBytes));
+            segment.ints.put(0, MAGIC);
+            segment.ints.put(1, VERSION);
+            segment.ints.put(2, RECORD_INTS * Integer.BYTES);
+            segment.ints.put(COUNT_INDEX, 0);
+            segment.buffer.force();
+            return segment;
+        }
+
+        static Segment open(Path path, int number) throws IOException {
+            Segment segment = new Segment(number, map(path, Files.size(path)));
+            segment.version = checkHeader(path, segment.ints);
+            int count = segment.ints.get(COUNT_INDEX);
+            segment.reserved.set(count);
+            segment.committed = count;
+            return segment;
+        }
+
+        private static MappedByteBuffer map(Path path, long size) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+        }
+
+        void write(int slot, int score, int playerId, int kind, long timestamp) {
+            int at = HEADER_INTS + slot * RECORD_INTS;
+            ints.put(at, score);
+            ints.put(at + 1, playerId);
+            ints.put(at + 2, kind);
+            ints.put(at + 3, (int) timestamp);
+            ints.put(at + 4, (int) (timestamp >>> 32));
+            // The atomic update publishes the ints above to the committer.
+            written.getAndAccumulate(slot / Long.SIZE, 1L << slot, (bits, bit) -> bits | bit);
+        }
+
+        // Returns the end of the run of written slots that starts at the given slot.
+        int writtenFrom(int slot) {
+            int limit = Math.min(reserved.get(), capacity);
+            int end = slot;
+            while (end < limit) {
+                int bit = end % Long.SIZE;
+                int run = Long.numberOfTrailingZeros(~(written.get(end / Long.SIZE) >>> bit));
+                end += Math.min(run, Long.SIZE - bit);
+                if (run < Long.SIZE - bit) {
+                    break;
+                }
+            }
+            return Math.min(end, limit);
+        }
+
+        // Flushes the records written since the last commit and then the count that covers them.
+        void commitWritten() {
+            int count = writtenFrom(committed);
+            if (count == committed) {
+                return;
+            }
+            buffer.force();
+            ints.put(COUNT_INDEX, count);
+            committed = count;
+            buffer.force(0, HEADER_BYTES);
+        }
+    }
+}
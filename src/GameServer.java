@@ -0,0 +1,326 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * The GameServer class hosts Wheel of Fortune and Mastermind games for many players at once
+ * over a simple line protocol on TCP: the player sends one line per answer and the server
+ * replies with the same text the console games print.
+ *
+ * <p>The server runs on a single thread with a non-blocking NIO selector. Each connection
+ * carries a {@link GameSession} state machine and a small input buffer; output buffers are only
+ * allocated while a reply is waiting to be written. An idle player therefore costs a few hundred
+ * bytes and no thread, so tens of thousands of players can stay connected, while a guess is
+ * answered as soon as its line arrives. Every game is recorded in one shared AllGameRecord.</p>
+ *
+ * <p>A connection that fails, even while it is being accepted, only ends its own session. If a
+ * player cannot be accepted at all, for example because the process is out of file
+ * descriptors, the server stops accepting for a moment and keeps serving the players it
+ * has.</p>
+ */
+public class GameServer implements Closeable {
+    /** The port the server listens on when none is given. */
+    public static final int DEFAULT_PORT = 4514;
+    /** Lines longer than this are refused and the connection is closed. */
+    private static final int MAX_LINE_BYTES = 256;
+    /** How long accepting pauses after a player could not be accepted. */
+    private static final long ACCEPT_RETRY_MILLIS = 100;
+
+    private final AllGameRecord allGameRecords;
+    private final PhraseCorpus corpus;
+    private final MastermindEngine engine;
+    private final GameRandom random;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final SelectionKey acceptKey;
+    // Guarded by this.
+    private boolean running;
+    private volatile boolean closed;
+    // When accepting resumes after a failed accept, or 0 while accepting.
+    private long acceptRetryNanos;
+    private int connections;
+    // Every session accepted so far, which keys the session's phrases and secrets.
+    private int sessions;
+
+    /**
+     * Opens a server on the given address. Games are only served once {@link #run()} is called.
+     *
+     * @param address the address to listen on; port 0 picks a free port
+     * @param allGameRecords the league every game is recorded in
+     * @param corpus the phrases for Wheel of Fortune
+     * @param engine the rules for Mastermind
+     * @param random the source every player's phrases and secrets are derived from
+     * @throws IOException if the address cannot be bound
+     */
+    public GameServer(InetSocketAddress address, AllGameRecord allGameRecords, PhraseCorpus corpus,
+                      MastermindEngine engine, GameRandom random) throws IOException {
+        this.allGameRecords = allGameRecords;
+        this.corpus = corpus;
+        this.engine = engine;
+        this.random = random;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(address, 1024);
+        this.acceptKey = serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * @return the port the server is listening on
+     * @throws IOException if the port cannot be read
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * @return the number of players connected right now
+     */
+    public int getConnections() {
+        return connections;
+    }
+
+    /**
+     * Serves players until the server is closed. Only one thread may run the server.
+     *
+     * @throws IOException if the selector fails
+     */
+    public void run() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            running = true;
+        }
+        try {
+            while (!closed) {
+                selector.select(acceptRetryNanos != 0 ? ACCEPT_RETRY_MILLIS : 0);
+                if (acceptRetryNanos != 0 && System.nanoTime() - acceptRetryNanos >= 0) {
+                    acceptRetryNanos = 0;
+                    acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                    } catch (IOException e) {
+                        // A player who drops the connection only ends their own session.
+                        connection.close();
+                    }
+                }
+            }
+        } finally {
+            synchronized (this) {
+                running = false;
+                closed = true;
+            }
+            shutDown();
+        }
+    }
+
+    /**
+     * Stops listening and disconnects every player. While {@link #run()} is serving, the
+     * serving thread is woken up to disconnect them, since only it may touch the selector's
+     * keys.
+     *
+     * @throws IOException if the server cannot be shut down
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            if (running) {
+                selector.wakeup();
+                return;
+            }
+        }
+        shutDown();
+    }
+
+    private void shutDown() throws IOException {
+        if (!selector.isOpen()) {
+            return;
+        }
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection connection) {
+                connection.close();
+            }
+        }
+        serverChannel.close();
+        selector.close();
+    }
+
+    private void accept() {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (IOException e) {
+                // Most likely out of file descriptors: serve the players we have and retry soon.
+                System.err.println("Cannot accept a player, pausing for " + ACCEPT_RETRY_MILLIS + " ms: " + e.getMessage());
+                acceptKey.interestOps(0);
+                acceptRetryNanos = System.nanoTime() + ACCEPT_RETRY_MILLIS * 1_000_000;
+                return;
+            }
+            if (channel == null) {
+                return;
+            }
+            Connection connection = null;
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                connection = new Connection(channel, key, new GameSession(allGameRecords, corpus, engine, random.split(++sessions)));
+                key.attach(connection);
+                connections++;
+                connection.send();
+            } catch (IOException e) {
+                // The player left before the greeting; only their connection is closed.
+                if (connection != null) {
+                    connection.close();
+                } else {
+                    try {
+                        channel.close();
+                    } catch (IOException closeFailure) {
+                        // Nothing more can be done for this player.
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * One player's connection: the channel, the bytes of the line being received and any reply
+     * that could not be written at once.
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final GameSession session;
+        private final ByteBuffer input = ByteBuffer.allocate(MAX_LINE_BYTES);
+        private ByteBuffer pending;
+
+        Connection(SocketChannel channel, SelectionKey key, GameSession session) {
+            this.channel = channel;
+            this.key = key;
+            this.session = session;
+        }
+
+        void read() throws IOException {
+            int read = channel.read(input);
+            if (read < 0) {
+                close();
+                return;
+            }
+            input.flip();
+            int lineStart = 0;
+            for (int i = 0; i < input.limit(); i++) {
+                if (input.get(i) == '\n') {
+                    int end = i > lineStart && input.get(i - 1) == '\r' ? i - 1 : i;
+                    session.handle(new String(input.array(), lineStart, end - lineStart, StandardCharsets.UTF_8));
+                    lineStart = i + 1;
+                }
+            }
+            input.position(lineStart);
+            input.compact();
+            if (!input.hasRemaining()) {
+                channel.write(StandardCharsets.UTF_8.encode("Line too long, goodbye.\n"));
+                close();
+                return;
+            }
+            send();
+        }
+
+        // Writes whatever the session has to say, keeping the rest for when the socket can take it.
+        void send() throws IOException {
+            String text = session.takeOutput();
+            if (!text.isEmpty()) {
+                ByteBuffer bytes = StandardCharsets.UTF_8.encode(text);
+                if (pending == null) {
+                    pending = bytes;
+                } else {
+                    ByteBuffer joined = ByteBuffer.allocate(pending.remaining() + bytes.remaining());
+                    pending = joined.put(pending).put(bytes).flip();
+                }
+            }
+            flush();
+        }
+
+        void flush() throws IOException {
+            if (pending != null) {
+                channel.write(pending);
+                if (pending.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                pending = null;
+            }
+            if (key.isValid()) {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+            if (session.isClosed()) {
+                close();
+            }
+        }
+
+        void close() {
+            if (!channel.isOpen()) {
+                return;
+            }
+            connections--;
+            key.cancel();
+            if (acceptRetryNanos != 0) {
+                // A file descriptor was freed, so accepting can resume at once.
+                acceptRetryNanos = System.nanoTime();
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Nothing more can be done for this player.
+            }
+        }
+    }
+
+    /**
+     * Runs the server until the process is stopped. Connect with any line-based client, for
+     * example {@code nc localhost 4514}.
+     *
+     * @param args the port to listen on; defaults to {@value #DEFAULT_PORT}
+     * @throws IOException if the port cannot be bound or "phrases.txt" cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        PhraseCorpus corpus = SharedPhraseCorpus.of(PhraseCorpus.defaultPath()).snapshot();
+        AllGameRecord allGameRecords = new AllGameRecord();
+        if (GameMetrics.ENABLED) {
+            GameMetrics.get().watchRecordStore(allGameRecords::size);
+        }
+        GameServer server = new GameServer(new InetSocketAddress(port), allGameRecords, corpus,
+                MastermindEngine.classic(), GameRandom.defaults());
+        System.out.println("Serving games on port " + server.getPort());
+        server.run();
+    }
+}
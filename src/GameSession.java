@@ -0,0 +1,226 @@
+/**
+ * The GameSession class is the state machine behind one connection to the {@link GameServer}.
+ * It is fed one line of input at a time and answers with lines of text, so it never blocks and
+ * holds no thread of its own; an idle session is just a few small objects.
+ *
+ * <p>A session starts at a menu, from which the player can play Wheel of Fortune or Mastermind
+ * as many times as they like. Each game runs in its own {@link WOFGameContext} or
+ * {@link MastermindGameContext}, game events are described with the same text the console
+ * games print, and every finished game is recorded in the server's shared AllGameRecord.</p>
+ */
+final class GameSession {
+    private static final int WOF_WRONG_ANSWERS = 5;
+    private static final String MENU = "Choose a game: 1. Wheel of Fortune 2. Mastermind 3. Scores 4. Quit";
+
+    private enum Mode { MENU, WHEEL_OF_FORTUNE, MASTERMIND, PLAY_AGAIN, CLOSED }
+
+    private final AllGameRecord allGameRecords;
+    private final PhraseCorpus corpus;
+    private final MastermindEngine engine;
+    private final GameRandom random;
+    private final int playerId;
+    private final StringBuilder output = new StringBuilder();
+    private final TextGameObserver observer = new TextGameObserver() {
+        @Override
+        protected void writeLine(String line) {
+            output.append(line).append('\n');
+        }
+    };
+
+    private Mode mode = Mode.MENU;
+    private Mode lastGame;
+    private PhraseCursor phrases;
+    private WOFGameContext wof;
+    private MastermindGameContext mastermind;
+    private int gameNumber;
+
+    /**
+     * Starts a session for a new player and writes the greeting.
+     *
+     * @param allGameRecords the league every game is recorded in
+     * @param corpus the phrases for Wheel of Fortune
+     * @param engine the rules for Mastermind
+     * @param random the source of this session's phrases and secrets, split off the server's
+     * by the number of the session
+     */
+    GameSession(AllGameRecord allGameRecords, PhraseCorpus corpus, MastermindEngine engine, GameRandom random) {
+        this.allGameRecords = allGameRecords;
+        this.corpus = corpus;
+        this.engine = engine;
+        this.playerId = allGameRecords.generateNewPlayerId();
+        this.random = random;
+        observer.message("Welcome! Your playerId is " + playerId);
+        observer.message(MENU);
+    }
+
+    /**
+     * Handles one line of input from the player.
+     *
+     * @param line the line, without its line terminator
+     */
+    void handle(String line) {
+        String input = line.trim();
+        switch (mode) {
+            case MENU -> chooseGame(input);
+            case WHEEL_OF_FORTUNE -> guessLetter(input);
+            case MASTERMIND -> guessCode(input);
+            case PLAY_AGAIN -> playAgain(input);
+            case CLOSED -> { }
+        }
+    }
+
+    /**
+     * Takes the text written since the last call.
+     *
+     * @return the pending output, or an empty string if there is none
+     */
+    String takeOutput() {
+        String text = output.toString();
+        output.setLength(0);
+        return text;
+    }
+
+    /**
+     * @return true once the player has quit and the connection should be closed
+     */
+    boolean isClosed() {
+        return mode == Mode.CLOSED;
+    }
+
+    /**
+     * @return the ID of the player of this session
+     */
+    int getPlayerId() {
+        return playerId;
+    }
+
+    private void chooseGame(String input) {
+        switch (input.toLowerCase()) {
+            case "1", "wof" -> startWheelOfFortune();
+            case "2", "mastermind" -> startMastermind();
+            case "3", "scores" -> {
+                observer.message("Your average score is " + allGameRecords.playerAverage(playerId));
+                observer.message("The 5 highest scores are " + allGameRecords.highGameList(5));
+                observer.message(MENU);
+            }
+            case "4", "quit" -> {
+                observer.message("Goodbye!");
+                mode = Mode.CLOSED;
+            }
+            default -> observer.message(MENU);
+        }
+    }
+
+    private void startWheelOfFortune() {
+        if (phrases == null) {
+            phrases = corpus.cursor(random.generator());
+        }
+        if (!phrases.hasNext()) {
+            observer.message("No more phrases available!");
+            observer.message(MENU);
+            mode = Mode.MENU;
+            return;
+        }
+        wof = new WOFGameContext(playerId, phrases.next(), WOF_WRONG_ANSWERS, random.split(++gameNumber).generator());
+        mode = Mode.WHEEL_OF_FORTUNE;
+        lastGame = Mode.WHEEL_OF_FORTUNE;
+        observer.gameStarted(playerId, wof.getHiddenPhrase());
+        promptLetter();
+    }
+
+    private void promptLetter() {
+        observer.guessRequested(playerId, wof.getPreviousGuesses(), wof.getHiddenPhrase());
+    }
+
+    private void guessLetter(String input) {
+        String guess = input.toLowerCase();
+        if (guess.length() != 1 || !Character.isLetter(guess.charAt(0)) || wof.isGuessed(guess.charAt(0))) {
+            observer.message("Invalid guess. Please enter a single unused letter.");
+            return;
+        }
+        wof.getPreviousGuesses().append(guess);
+        observer.guessMade(playerId, guess);
+        wof.processGuess(guess, observer);
+        if (wof.checkWin()) {
+            observer.gameWon(playerId);
+            finish(wof.calculateScore(true));
+        } else if (wof.getWrongAnswers() <= 0) {
+            observer.gameLost(playerId);
+            observer.message("The phrase was: " + wof.getPhrase());
+            finish(wof.calculateScore(false));
+        } else {
+            promptLetter();
+        }
+    }
+
+    private void startMastermind() {
+        mastermind = new MastermindGameContext(playerId, engine, engine.randomCode(random.split(++gameNumber).generator()));
+        mode = Mode.MASTERMIND;
+        lastGame = Mode.MASTERMIND;
+        // Unlike the console game, the secret is not shown over the network.
+        observer.gameStarted(playerId, "*".repeat(engine.getCodeLength()));
+        promptCode();
+    }
+
+    private void promptCode() {
+        StringBuilder colors = new StringBuilder();
+        for (char color : engine.getColors()) {
+            colors.append(colors.length() > 0 ? ", " : "").append(color);
+        }
+        observer.message("Enter a guess of " + engine.getCodeLength() + " colors (" + colors + "): ");
+    }
+
+    private void guessCode(String input) {
+        String guess = input.toUpperCase();
+        int code = engine.encode(guess);
+        if (code == MastermindEngine.INVALID) {
+            observer.message("Invalid guess, please enter a guess with " + engine.getCodeLength() + " valid colors.");
+            return;
+        }
+        observer.guessMade(playerId, guess);
+        int feedback = mastermind.processGuess(code);
+        if (engine.isSolved(feedback)) {
+            observer.gameWon(playerId);
+            finish(mastermind.calculateScore(true));
+            return;
+        }
+        observer.codeScored(playerId, guess, MastermindEngine.exact(feedback), MastermindEngine.partial(feedback));
+        if (mastermind.getAttemptsLeft() == 0) {
+            observer.gameLost(playerId);
+            observer.message("The code was: " + engine.decode(mastermind.getSecret()));
+            finish(mastermind.calculateScore(false));
+        } else {
+            promptCode();
+        }
+    }
+
+    private void finish(int score) {
+        GameType gameType = lastGame == Mode.MASTERMIND ? GameType.MASTERMIND : GameType.WOF_USER;
+        GameRecord gameRecord = new GameRecord(score, playerId, gameType, GameRecord.HUMAN);
+        allGameRecords.add(gameRecord);
+        observer.recordWritten(gameRecord);
+        observer.message("Would you like to play another game? (y/n): ");
+        mode = Mode.PLAY_AGAIN;
+    }
+
+    private void playAgain(String input) {
+        if (input.equalsIgnoreCase("y")) {
+            if (lastGame == Mode.WHEEL_OF_FORTUNE) {
+                startWheelOfFortune();
+            } else {
+                startMastermind();
+            }
+        } else {
+            mode = Mode.MENU;
+            observer.message(MENU);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "GameSession{" +
+                "playerId=" + playerId +
+                ", mode=" + mode +
+                '}';
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * The GameType enum names the kind of game a {@link GameRecord} comes from, so the records of
+ * different games kept in one {@link AllGameRecord} can be told apart and summarized
+ * separately.
+ *
+ * <p>The ordinal of each type is stored in game record columns and journals, so new types must
+ * be added at the end.</p>
+ */
+public enum GameType {
+    /** A game recorded before game types were kept, or by a caller that did not say. */
+    UNKNOWN,
+    /** A Wheel of Fortune game played by a person. */
+    WOF_USER,
+    /** A Wheel of Fortune game played by an AI player. */
+    WOF_AI,
+    /** A Mastermind game, played by a person or an AI player. */
+    MASTERMIND;
+
+    private static final GameType[] VALUES = values();
+
+    /**
+     * @param ordinal the ordinal of a game type
+     * @return the game type with that ordinal, or UNKNOWN if there is none
+     */
+    static GameType of(int ordinal) {
+        return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : UNKNOWN;
+    }
+}
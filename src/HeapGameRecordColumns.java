@@ -0,0 +1,63 @@
+import java.util.Arrays;
+
+/**
+ * The HeapGameRecordColumns class keeps the columns in parallel primitive arrays that grow by
+ * half their size whenever they fill up. The game type and strategy of a record share one
+ * int, the type in the top 8 bits and the strategy code in the rest.
+ */
+final class HeapGameRecordColumns implements GameRecordColumns {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int TYPE_SHIFT = 24;
+
+    private int[] scores = new int[INITIAL_CAPACITY];
+    private int[] playerIds = new int[INITIAL_CAPACITY];
+    private int[] kinds = new int[INITIAL_CAPACITY];
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private int size;
+
+    @Override
+    public void append(int score, int playerId, int gameType, int strategy, long timestamp) {
+        if (size == scores.length) {
+            int capacity = scores.length + (scores.length >> 1);
+            scores = Arrays.copyOf(scores, capacity);
+            playerIds = Arrays.copyOf(playerIds, capacity);
+            kinds = Arrays.copyOf(kinds, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+        }
+        scores[size] = score;
+        playerIds[size] = playerId;
+        kinds[size] = gameType << TYPE_SHIFT | strategy;
+        timestamps[size] = timestamp;
+        size++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int score(int index) {
+        return scores[index];
+    }
+
+    @Override
+    public int playerId(int index) {
+        return playerIds[index];
+    }
+
+    @Override
+    public int gameType(int index) {
+        return kinds[index] >>> TYPE_SHIFT;
+    }
+
+    @Override
+    public int strategy(int index) {
+        return kinds[index] & (MAX_STRATEGIES - 1);
+    }
+
+    @Override
+    public long timestamp(int index) {
+        return timestamps[index];
+    }
+}
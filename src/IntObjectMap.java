@@ -0,0 +1,108 @@
+import java.util.Arrays;
+
+/**
+ * The IntObjectMap class maps primitive int keys to objects using open addressing with
+ * linear probing. Keys are never boxed, so looking up a player's statistics costs a hash
+ * and usually a single array read.
+ *
+ * <p>Entries can be added and replaced but not removed. Instances are not thread-safe.</p>
+ *
+ * @param <V> the type of the values
+ */
+final class IntObjectMap<V> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * @param key the key to look up
+     * @return the value stored for the key, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores a value for a key, replacing any value already stored for it.
+     *
+     * @param key the key to store the value under
+     * @param value the value to store; must not be null
+     */
+    void put(int key, V value) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    /**
+     * @return the number of keys stored
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return a new array holding every key stored, in no particular order
+     */
+    int[] keys() {
+        int[] result = new int[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                result[n++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new Object[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] != null) {
+                int i = hash(oldKeys[j]) & mask;
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public String toString() {
+        return "IntObjectMap{" +
+                "keys=" + Arrays.toString(keys()) +
+                '}';
+    }
+}
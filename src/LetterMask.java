@@ -0,0 +1,89 @@
+/**
+ * The LetterMask class works with sets of the letters 'a' to 'z' packed into the low 26 bits
+ * of an int, bit 0 standing for 'a'. Games use it to keep track of the letters guessed so far,
+ * so checking or adding a guess is a single bit operation instead of a search through a string.
+ */
+public final class LetterMask {
+    /** The mask holding every letter from 'a' to 'z'. */
+    public static final int ALL = (1 << 26) - 1;
+
+    private LetterMask() {
+    }
+
+    /**
+     * @param letter the letter to look up
+     * @return the bit for the letter, or 0 if it is not one of 'a' to 'z'
+     */
+    public static int bit(char letter) {
+        return letter >= 'a' && letter <= 'z' ? 1 << (letter - 'a') : 0;
+    }
+
+    /**
+     * Builds the mask of every letter 'a' to 'z' that appears in the given text.
+     *
+     * @param letters the text to scan, such as the previous guesses
+     * @return the mask of the letters found
+     */
+    public static int of(CharSequence letters) {
+        int mask = 0;
+        for (int i = 0; i < letters.length(); i++) {
+            mask |= bit(letters.charAt(i));
+        }
+        return mask;
+    }
+
+    /**
+     * @param mask the set of letters
+     * @param letter the letter to look for
+     * @return true if the letter is one of 'a' to 'z' and is in the set
+     */
+    public static boolean contains(int mask, char letter) {
+        return (mask & bit(letter)) != 0;
+    }
+
+    /**
+     * @param mask the set of letters
+     * @return the number of letters in the set
+     */
+    public static int size(int mask) {
+        return Integer.bitCount(mask & ALL);
+    }
+
+    /**
+     * @param mask the set of letters
+     * @return the letters from 'a' to 'z' that are not in the set
+     */
+    public static int remaining(int mask) {
+        return ~mask & ALL;
+    }
+
+    /**
+     * Finds the letter at a given position among the letters in a set, in alphabetical order.
+     *
+     * @param mask the set of letters
+     * @param n the position of the letter, from 0 to {@code size(mask) - 1}
+     * @return the n-th letter in the set
+     */
+    public static char nth(int mask, int n) {
+        mask &= ALL;
+        if (n < 0 || n >= Integer.bitCount(mask)) {
+            throw new IndexOutOfBoundsException("letter " + n + " of " + Integer.bitCount(mask));
+        }
+        for (int i = 0; i < n; i++) {
+            mask &= mask - 1; // drops the lowest letter
+        }
+        return (char) ('a' + Integer.numberOfTrailingZeros(mask));
+    }
+
+    /**
+     * @param mask the set of letters
+     * @return the letters in the set in alphabetical order
+     */
+    public static String toString(int mask) {
+        StringBuilder letters = new StringBuilder(size(mask));
+        for (int rest = mask & ALL; rest != 0; rest &= rest - 1) {
+            letters.append((char) ('a' + Integer.numberOfTrailingZeros(rest)));
+        }
+        return letters.toString();
+    }
+}
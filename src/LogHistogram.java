@@ -0,0 +1,181 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LogHistogram class counts non-negative values, such as latencies in nanoseconds, in
+ * buckets that grow with the value: values below 16 each get their own bucket, and every
+ * power of two above that is split into 8 buckets, so a value is known to within 12.5%
+ * whatever its size. All the buckets of values up to Long.MAX_VALUE fit in 488 counters.
+ *
+ * <p>Recording a value is lock-free: it increments one bucket with an atomic add and updates
+ * the sum and the largest value through striped adders, so many threads can record into one
+ * histogram without waiting on each other. {@link #snapshot()} reads the buckets without
+ * stopping the writers; values recorded meanwhile may or may not be included.</p>
+ */
+public final class LogHistogram {
+    private static final int EXACT = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = EXACT + (63 - 4) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records one value.
+     *
+     * @param value the value; negative values are counted as 0
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.getAndIncrement(bucket(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Forgets every value recorded so far. Values recorded while resetting may survive it.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        sum.reset();
+        max.reset();
+    }
+
+    /**
+     * @return the values recorded so far, summarized
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, sum.sum(), max.get());
+    }
+
+    static int bucket(long value) {
+        if (value < EXACT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT + (exponent - 4) * SUB_BUCKETS + subBucket;
+    }
+
+    // The largest value that falls in the bucket.
+    static long highestValue(int bucket) {
+        if (bucket < EXACT) {
+            return bucket;
+        }
+        int exponent = (bucket - EXACT) / SUB_BUCKETS + 4;
+        long subBucket = (bucket - EXACT) % SUB_BUCKETS;
+        long lowest = (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    /**
+     * The Snapshot class is a summary of a histogram at one moment. It does not change when
+     * more values are recorded.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * @return the number of values recorded
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the average of the values, or 0 if none were recorded
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * @return the largest value recorded, or 0 if none were recorded
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * @return the median, within 12.5%
+         */
+        public long getP50() {
+            return valueAt(0.5);
+        }
+
+        /**
+         * @return the 90th percentile, within 12.5%
+         */
+        public long getP90() {
+            return valueAt(0.9);
+        }
+
+        /**
+         * @return the 99th percentile, within 12.5%
+         */
+        public long getP99() {
+            return valueAt(0.99);
+        }
+
+        /**
+         * Finds the value that the given fraction of the recorded values do not exceed. The
+         * answer is the top of the bucket the value fell in, but never more than the largest
+         * value recorded.
+         *
+         * @param quantile the fraction, from 0 to 1
+         * @return the value, or 0 if none were recorded
+         */
+        public long valueAt(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValue(i), max);
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + count +
+                    ", mean=" + String.format("%.1f", getMean()) +
+                    ", p50=" + getP50() +
+                    ", p90=" + getP90() +
+                    ", p99=" + getP99() +
+                    ", max=" + max;
+        }
+    }
+}
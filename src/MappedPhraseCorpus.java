@@ -0,0 +1,180 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The MappedPhraseCorpus class serves phrases straight out of a memory-mapped text file with
+ * one phrase per line. Opening the corpus only maps the file and finds where each line starts;
+ * a phrase is decoded from the mapped bytes when it is read.
+ *
+ * <p>The line offsets can be saved to an index file next to the corpus ("phrases.txt.idx"
+ * for "phrases.txt") with {@link #writeIndex()}. Later opens load that index instead of
+ * scanning the file, as long as the corpus has not changed since. The file must be smaller
+ * than 2 GB; larger corpora can be sampled with {@link PhraseCorpus#reservoir}.</p>
+ */
+public final class MappedPhraseCorpus implements PhraseCorpus {
+    private static final long INDEX_MAGIC = 0x574F46494E444558L; // "WOFINDEX"
+    private static final int INDEX_VERSION = 1;
+    private static final int INDEX_HEADER_BYTES = 32;
+    static final String INDEX_SUFFIX = ".idx";
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int[] lineStarts;
+    private final int size;
+
+    private MappedPhraseCorpus(Path path, MappedByteBuffer buffer, int[] lineStarts, int size) {
+        this.path = path;
+        this.buffer = buffer;
+        this.lineStarts = lineStarts;
+        this.size = size;
+    }
+
+    /**
+     * Maps a phrase file, loading its saved index if it is current or scanning the file otherwise.
+     *
+     * @param path the phrase file to open
+     * @return the opened corpus
+     * @throws IOException if the file cannot be read or is 2 GB or larger
+     */
+    public static MappedPhraseCorpus open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() >= Integer.MAX_VALUE) {
+                throw new IOException("phrase file too large to map, use PhraseCorpus.reservoir: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int[] lineStarts = loadIndex(path, buffer.limit());
+        if (lineStarts == null) {
+            lineStarts = scanLines(buffer);
+        }
+        return new MappedPhraseCorpus(path, buffer, lineStarts, lineStarts.length - 1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String phrase(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("phrase " + index + " of " + size);
+        }
+        int start = lineStarts[index];
+        int end = lineStarts[index + 1];
+        // lineStarts[i + 1] is just past the newline, except after the last line.
+        if (end > start && buffer.get(end - 1) == '\n') {
+            end--;
+        }
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Saves the line offsets next to the corpus so later opens can skip the scan.
+     *
+     * @throws IOException if the index file cannot be written
+     */
+    public void writeIndex() throws IOException {
+        ByteBuffer index = ByteBuffer.allocate(INDEX_HEADER_BYTES + lineStarts.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        index.putLong(INDEX_MAGIC);
+        index.putInt(INDEX_VERSION);
+        index.putInt(size);
+        index.putLong(buffer.limit());
+        index.putLong(Files.getLastModifiedTime(path).toMillis());
+        index.asIntBuffer().put(lineStarts);
+        Files.write(indexPath(path), index.array());
+    }
+
+    private static int[] loadIndex(Path path, int corpusBytes) throws IOException {
+        Path indexPath = indexPath(path);
+        if (!Files.isRegularFile(indexPath)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            if (channel.size() < INDEX_HEADER_BYTES) {
+                return null;
+            }
+            ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            int count = index.getInt(12);
+            boolean current = index.getLong(0) == INDEX_MAGIC
+                    && index.getInt(8) == INDEX_VERSION
+                    && index.getLong(16) == corpusBytes
+                    && index.getLong(24) == Files.getLastModifiedTime(path).toMillis()
+                    && count >= 0
+                    && channel.size() == INDEX_HEADER_BYTES + (count + 1L) * Integer.BYTES;
+            if (!current) {
+                return null;
+            }
+            int[] lineStarts = new int[count + 1];
+            index.position(INDEX_HEADER_BYTES);
+            index.asIntBuffer().get(lineStarts);
+            return lineStarts;
+        }
+    }
+
+    // Records where each line starts, plus one entry for the end of the file.
+    private static int[] scanLines(MappedByteBuffer buffer) {
+        int limit = buffer.limit();
+        int[] lineStarts = new int[Math.max(16, limit / 32)];
+        int lines = 0;
+        int start = 0;
+        for (int i = 0; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                if (lines + 2 > lineStarts.length) {
+                    lineStarts = Arrays.copyOf(lineStarts, lineStarts.length * 2);
+                }
+                lineStarts[lines++] = start;
+                start = i + 1;
+            }
+        }
+        if (lines + 2 > lineStarts.length) {
+            lineStarts = Arrays.copyOf(lineStarts, lines + 2);
+        }
+        // A last line without a newline is still a phrase.
+        if (start < limit) {
+            lineStarts[lines++] = start;
+        }
+        lineStarts[lines] = limit;
+        return Arrays.copyOf(lineStarts, lines + 1);
+    }
+
+    private static Path indexPath(Path path) {
+        return path.resolveSibling(path.getFileName() + INDEX_SUFFIX);
+    }
+
+    @Override
+    public String toString() {
+        return "MappedPhraseCorpus{" +
+                "path=" + path +
+                ", size=" + size +
+                '}';
+    }
+
+    /**
+     * Builds and saves the line-offset index for a phrase file.
+     *
+     * @param args the phrase file to index; defaults to "phrases.txt"
+     * @throws IOException if the corpus cannot be read or the index cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Paths.get(args.length > 0 ? args[0] : "phrases.txt");
+        MappedPhraseCorpus corpus = open(path);
+        corpus.writeIndex();
+        System.out.println("Indexed " + corpus.size() + " phrases in " + indexPath(path));
+    }
+}
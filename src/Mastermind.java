@@ -1,6 +1,7 @@
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The Mastermind class represents a command-line version of the Mastermind game.
@@ -8,19 +9,28 @@ import java.util.Scanner;
  * the exact colors and positions in the code within a limited number of attempts.
  *
  * <p>The class includes methods to generate the secret code, process guesses, provide feedback on
- * exact and partial matches, and record game results.</p>
+ * exact and partial matches, and record game results. The colors, the code length, whether the
+ * secret may repeat a color and the number of attempts come from the game's
+ * {@link MastermindEngine}, which also scores the guesses.</p>
+ *
+ * <p>Each game is kept in a {@link MastermindGameContext}. The person at the console is one
+ * {@link MastermindInterface} player; {@link #playAll(MastermindInterface, int)} lets any other
+ * player play a batch of games without the console.</p>
  */
 public class Mastermind extends GuessingGame {
-    private static final char[] COLORS = {'R', 'G', 'B', 'Y', 'O', 'P'};
-    private static final int CODE_LENGTH = 4;
-    private static int maxAttempts;
-    private static boolean allowDuplicates = false;
+    // Numbers the Mastermind players of this run; the number keys each player's secret codes.
+    private static final AtomicInteger PLAYERS = new AtomicInteger();
+
+    private final MastermindEngine engine;
+    private MastermindGameContext game;
 
     public StringBuilder secretCode;
     private StringBuilder previousGuesses;
     private static Scanner scanner = new Scanner(System.in);
     private AllGameRecord allGameRecords;
     private int playerId;
+    private GameObserver observer;
+    private SplittableRandom random;
 
     /**
      * Constructs a new Mastermind game instance, initializing a new player ID,
@@ -29,11 +39,49 @@ public class Mastermind extends GuessingGame {
      * @param allGameRecords the AllGameRecord instance that stores game records
      */
     public Mastermind(AllGameRecord allGameRecords) {
+        this(allGameRecords, new ConsoleGameObserver());
+    }
+
+    /**
+     * Constructs a new Mastermind game instance that reports game events to the given observer.
+     * Prompts that ask the user for input are always printed to the console.
+     *
+     * @param allGameRecords the AllGameRecord instance that stores game records
+     * @param observer the observer that receives game events
+     */
+    public Mastermind(AllGameRecord allGameRecords, GameObserver observer) {
+        this(allGameRecords, observer, GameRandom.defaults());
+    }
+
+    /**
+     * Constructs a new Mastermind game instance whose secret codes are drawn from the given
+     * source of randomness, so the same seed always gives the same codes to the player created
+     * in the same order in a run.
+     *
+     * @param allGameRecords the AllGameRecord instance that stores game records
+     * @param observer the observer that receives game events
+     * @param random the source of randomness the player's secret codes are derived from
+     */
+    public Mastermind(AllGameRecord allGameRecords, GameObserver observer, GameRandom random) {
+        this(allGameRecords, observer, random, MastermindEngine.classic());
+    }
+
+    /**
+     * Constructs a new Mastermind game instance that plays by the given rules.
+     *
+     * @param allGameRecords the AllGameRecord instance that stores game records
+     * @param observer the observer that receives game events
+     * @param random the source of randomness the player's secret codes are derived from
+     * @param engine the rules of the game: colors, code length, duplicates and attempts
+     */
+    public Mastermind(AllGameRecord allGameRecords, GameObserver observer, GameRandom random, MastermindEngine engine) {
+        this.engine = engine;
+        this.observer = observer;
         this.allGameRecords = allGameRecords;
-        this.playerId = AllGameRecord.generateNewPlayerId();
-        this.secretCode = randomPhrase();
-        this.maxAttempts = 10;
+        this.playerId = allGameRecords.generateNewPlayerId();
+        this.random = random.split(PLAYERS.incrementAndGet()).generator();
         this.previousGuesses = new StringBuilder("");
+        reset();
     }
 
     /**
@@ -63,25 +111,24 @@ public class Mastermind extends GuessingGame {
      */
     @Override
     public void play() {
-        String guess;
-        int exactMatches;
-        int partialMatches;
-        System.out.println(secretCode);  // For testing purposes; remove in final version
-        while (true) {
-            guess = getGuess(previousGuesses);
-            int[] result = processGuess(guess);
-            exactMatches = result[0];
-            partialMatches = result[1];
-            if (checkWin(exactMatches, partialMatches)) {
-                System.out.println("You won!");
-                recordGame(true);
-                break;
-            } else if (maxAttempts == 0) {
-                System.out.println("You lost!");
-                recordGame(false);
-                break;
-            }
+        // The game context reports the secret to the observer when it starts, for testing purposes.
+        recordGame(game, GameRecord.HUMAN, game.playWith(new ConsolePlayer(), observer));
+    }
+
+    /**
+     * Plays a batch of games with an AI player, without reading from the console, and records
+     * every result. Each game gets a new secret drawn from this instance's random stream.
+     *
+     * @param player the player making the guesses
+     * @param games the number of games to play
+     * @return the AllGameRecord containing all game records
+     */
+    public AllGameRecord playAll(MastermindInterface player, int games) {
+        for (int i = 0; i < games; i++) {
+            MastermindGameContext batchGame = new MastermindGameContext(player.playerId(), engine, engine.randomCode(random));
+            recordGame(batchGame, player.fingerprint(), batchGame.playWith(player, observer));
         }
+        return allGameRecords;
     }
 
     /**
@@ -92,54 +139,32 @@ public class Mastermind extends GuessingGame {
      * @return true if the player guessed the code correctly, false otherwise
      */
     public boolean checkWin(int exactMatches, int partialMatches) {
-        if (exactMatches == CODE_LENGTH) {
-            return true;
-        } else {
-            System.out.println("Feedback: " + exactMatches + " exact, " + partialMatches + " partial.");
-            return false;
-        }
+        return exactMatches == engine.getCodeLength();
     }
 
     /**
      * Records the outcome of the game, saving the score based on the player's performance.
      *
+     * @param game the game that was played
+     * @param strategy the identity of the player's strategy
      * @param won true if the player won, false if they lost
      */
-    private void recordGame(boolean won) {
-        int score = calculateScore(won);
-        GameRecord gameRecord = new GameRecord(score, playerId);
+    private void recordGame(MastermindGameContext game, String strategy, boolean won) {
+        int score = game.calculateScore(won);
+        GameRecord gameRecord = new GameRecord(score, game.getPlayerId(), GameType.MASTERMIND, strategy);
         allGameRecords.add(gameRecord);
-        System.out.println("Game recorded with score: " + score);
+        observer.recordWritten(gameRecord);
     }
 
     /**
-     * Calculates the score based on the player's remaining attempts if they won.
-     *
-     * @param won true if the player won, false otherwise
-     * @return the calculated score as an integer
-     */
-    private int calculateScore(boolean won) {
-        return won ? maxAttempts * 10 : 0;
-    }
-
-    /**
-     * Generates a random secret code of specified length using available colors,
-     * ensuring no duplicates if allowDuplicates is false.
+     * Generates a random secret code of the engine's length using its colors,
+     * ensuring no duplicates if the engine does not allow them.
      *
      * @return the randomly generated secret code as a StringBuilder
      */
     @Override
     public StringBuilder randomPhrase() {
-        StringBuilder secretCode = new StringBuilder();
-        Random random = new Random();
-
-        while (secretCode.length() < CODE_LENGTH) {
-            char color = COLORS[random.nextInt(COLORS.length)];
-            if (allowDuplicates || secretCode.indexOf(String.valueOf(color)) == -1) {
-                secretCode.append(color);
-            }
-        }
-        return secretCode;
+        return new StringBuilder(engine.decode(engine.randomCode(random)));
     }
 
     /**
@@ -150,14 +175,13 @@ public class Mastermind extends GuessingGame {
      */
     @Override
     public String getGuess(StringBuilder previousGuesses) {
-        maxAttempts--;
         String guess;
         while (true) {
-            System.out.println("Enter a guess of " + CODE_LENGTH + " colors (R, G, B, Y, O, P): ");
+            System.out.println("Enter a guess of " + engine.getCodeLength() + " colors (" + colorList() + "): ");
             guess = scanner.nextLine().toUpperCase();
 
             if (!isValidGuess(guess)) {
-                System.out.println("Invalid guess, please enter a guess with " + CODE_LENGTH + " valid colors.");
+                System.out.println("Invalid guess, please enter a guess with " + engine.getCodeLength() + " valid colors.");
                 continue;
             }
             break;
@@ -165,42 +189,13 @@ public class Mastermind extends GuessingGame {
         return guess;
     }
 
-    /**
-     * Processes the player's guess, calculating the number of exact and partial matches.
-     *
-     * @param guess the player's guess
-     * @return an array where the first element is the number of exact matches and the second element is the number of partial matches
-     */
-    private int[] processGuess(String guess) {
-        int exactMatches = 0;
-        int partialMatches = 0;
-
-        // First pass: Find exact matches
-        for (int i = 0; i < CODE_LENGTH; i++) {
-            if (guess.charAt(i) == secretCode.charAt(i)) {
-                exactMatches++;
-            }
-        }
-
-        // Second pass: Find partial matches
-        for (int i = 0; i < CODE_LENGTH; i++) {
-            for (int j = 0; j < CODE_LENGTH; j++) {
-                if (i != j && guess.charAt(i) == secretCode.charAt(j)) {
-                    partialMatches++;
-                    break;
-                }
-            }
-        }
-        return new int[]{exactMatches, partialMatches};
-    }
-
     /**
      * Resets the game state to start a new game, including generating a new secret code
-     * and resetting maxAttempts.
+     * and resetting the attempts left.
      */
     public void reset() {
         this.secretCode = randomPhrase();
-        this.maxAttempts = 10;
+        this.game = new MastermindGameContext(playerId, engine, engine.encode(secretCode));
     }
 
     /**
@@ -216,7 +211,7 @@ public class Mastermind extends GuessingGame {
                 System.out.print("Continue as same Player? (y/n): ");
                 String response = scanner.nextLine().trim().toLowerCase();
                 if (response.equals("n")) {
-                    this.playerId = AllGameRecord.generateNewPlayerId();
+                    this.playerId = allGameRecords.generateNewPlayerId();
                 }
                 reset();
             } else {
@@ -232,20 +227,22 @@ public class Mastermind extends GuessingGame {
      * @param guess the player's guess
      * @return true if the guess is valid, false otherwise
      */
-    private static boolean isValidGuess(String guess) {
-        if (guess.length() != CODE_LENGTH) return false;
+    private boolean isValidGuess(String guess) {
+        return engine.encode(guess) != MastermindEngine.INVALID;
+    }
 
-        for (char c : guess.toCharArray()) {
-            boolean isValidColor = false;
-            for (char color : COLORS) {
-                if (c == color) {
-                    isValidColor = true;
-                    break;
-                }
+    /**
+     * @return the engine's colors as a comma-separated list, such as "R, G, B"
+     */
+    private String colorList() {
+        StringBuilder list = new StringBuilder();
+        for (char color : engine.getColors()) {
+            if (list.length() > 0) {
+                list.append(", ");
             }
-            if (!isValidColor) return false;
+            list.append(color);
         }
-        return true;
+        return list.toString();
     }
 
     /**
@@ -259,6 +256,26 @@ public class Mastermind extends GuessingGame {
         return null;
     }
 
+    /**
+     * The person at the console, playing as this game's current player.
+     */
+    private class ConsolePlayer implements MastermindInterface {
+        @Override
+        public String getGuess(MastermindGameContext game) {
+            return Mastermind.this.getGuess(previousGuesses);
+        }
+
+        @Override
+        public int playerId() {
+            return playerId;
+        }
+
+        @Override
+        public void reset() {
+            playerId = allGameRecords.generateNewPlayerId();
+        }
+    }
+
     /**
      * Main method to run the Mastermind game. Initializes the game, plays all rounds, and prints game records.
      *
@@ -270,11 +287,12 @@ public class Mastermind extends GuessingGame {
         game.playAll();
 
         System.out.println("All games played:");
-        for (GameRecord record : allGameRecords.listOfGameRecords) {
+        for (GameRecord record : allGameRecords.getGameRecords()) {
             System.out.println("Player ID: " + record.playerId + ", Score: " + record.score);
         }
-        System.out.println("The average of all scores is " + AllGameRecord.average(allGameRecords.listOfGameRecords));
-        System.out.println("The 2 highest scores are " + AllGameRecord.highGameList(allGameRecords.listOfGameRecords, 2));
+        System.out.println("The average of all scores is " + allGameRecords.average());
+        System.out.println("The 2 highest scores are " + allGameRecords.highGameList(2));
+        System.out.println("Scores: " + allGameRecords.histogram());
 
     }
 }
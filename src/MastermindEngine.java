@@ -0,0 +1,295 @@
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * The MastermindEngine class holds the rules of one Mastermind variant (the colors, the
+ * number of pegs, whether a secret may repeat a color and how many guesses a player gets)
+ * and scores guesses under those rules.
+ *
+ * <p>Codes are packed into an int with four bits per peg, the first peg in the lowest bits,
+ * each holding the number of the peg's color. Feedback is packed into an int as well, with the
+ * exact matches in the high four bits and the partial matches in the low four bits. Partial
+ * matches are counted per color, with the counts of all colors packed into a long, so a repeated
+ * color is never counted twice and scoring a guess allocates nothing.</p>
+ *
+ * <p>An engine is immutable and can be shared by any number of games and threads.</p>
+ */
+public final class MastermindEngine {
+    /** The largest number of colors a code can use. */
+    public static final int MAX_COLORS = 16;
+    /** The largest number of pegs in a code. */
+    public static final int MAX_CODE_LENGTH = 7;
+    /** Returned by {@link #encode} for text that is not a code of the game. */
+    public static final int INVALID = -1;
+
+    private static final long NIBBLE_HIGH_BITS = 0x8888888888888888L;
+
+    private static final MastermindEngine CLASSIC =
+            new MastermindEngine(new char[]{'R', 'G', 'B', 'Y', 'O', 'P'}, 4, false, 10);
+
+    private final char[] colors;
+    private final int codeLength;
+    private final boolean allowDuplicates;
+    private final int maxAttempts;
+    private final int solved;
+
+    /**
+     * Creates the rules for a Mastermind variant.
+     *
+     * @param colors the colors a code is made of, up to {@value #MAX_COLORS} distinct characters
+     * @param codeLength the number of pegs in a code, from 1 to {@value #MAX_CODE_LENGTH}
+     * @param allowDuplicates true if a secret may use a color more than once
+     * @param maxAttempts the number of guesses a player gets
+     * @throws IllegalArgumentException if the rules cannot be played
+     */
+    public MastermindEngine(char[] colors, int codeLength, boolean allowDuplicates, int maxAttempts) {
+        if (colors.length < 1 || colors.length > MAX_COLORS) {
+            throw new IllegalArgumentException("between 1 and " + MAX_COLORS + " colors are needed: " + colors.length);
+        }
+        if (codeLength < 1 || codeLength > MAX_CODE_LENGTH) {
+            throw new IllegalArgumentException("code length must be between 1 and " + MAX_CODE_LENGTH + ": " + codeLength);
+        }
+        if (!allowDuplicates && codeLength > colors.length) {
+            throw new IllegalArgumentException(codeLength + " pegs need duplicates with only " + colors.length + " colors");
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("at least one attempt is needed: " + maxAttempts);
+        }
+        for (int i = 0; i < colors.length; i++) {
+            for (int j = 0; j < i; j++) {
+                if (colors[i] == colors[j]) {
+                    throw new IllegalArgumentException("color " + colors[i] + " is listed twice");
+                }
+            }
+        }
+        this.colors = colors.clone();
+        this.codeLength = codeLength;
+        this.allowDuplicates = allowDuplicates;
+        this.maxAttempts = maxAttempts;
+        this.solved = feedback(codeLength, 0);
+    }
+
+    /**
+     * @return the rules of the classic game: six colors (R, G, B, Y, O, P), four pegs, no
+     * repeated colors in the secret and ten guesses
+     */
+    public static MastermindEngine classic() {
+        return CLASSIC;
+    }
+
+    /**
+     * Packs the feedback for a guess into one value.
+     *
+     * @param exact the number of pegs with the right color in the right position
+     * @param partial the number of pegs with a right color in the wrong position
+     * @return the packed feedback
+     */
+    public static int feedback(int exact, int partial) {
+        return exact << 4 | partial;
+    }
+
+    /**
+     * @param feedback packed feedback
+     * @return the number of pegs with the right color in the right position
+     */
+    public static int exact(int feedback) {
+        return feedback >>> 4;
+    }
+
+    /**
+     * @param feedback packed feedback
+     * @return the number of pegs with a right color in the wrong position
+     */
+    public static int partial(int feedback) {
+        return feedback & 0xF;
+    }
+
+    /**
+     * Scores a guess against a secret.
+     *
+     * @param guess the packed guess
+     * @param secret the packed secret
+     * @return the packed feedback
+     */
+    public int score(int guess, int secret) {
+        int exact = 0;
+        // Four-bit counters, one per color, of the pegs that are not exact matches.
+        long guessColors = 0;
+        long secretColors = 0;
+        for (int i = 0, shift = 0; i < codeLength; i++, shift += 4) {
+            int g = guess >>> shift & 0xF;
+            int s = secret >>> shift & 0xF;
+            if (g == s) {
+                exact++;
+            } else {
+                guessColors += 1L << (g << 2);
+                secretColors += 1L << (s << 2);
+            }
+        }
+        // Counters never exceed 7, so the top bit of every nibble is free to hold a borrow:
+        // it stays set where the guess count is at least the secret count.
+        long guessAtLeast = ((guessColors | NIBBLE_HIGH_BITS) - secretColors & NIBBLE_HIGH_BITS) >>> 3;
+        long takeSecret = guessAtLeast * 0xF;
+        long common = secretColors & takeSecret | guessColors & ~takeSecret;
+        // The sum of all the minimums is at most 7, so multiplying adds the nibbles without carries.
+        int partial = (int) (common * 0x1111111111111111L >>> 60);
+        return feedback(exact, partial);
+    }
+
+    /**
+     * @param feedback packed feedback
+     * @return true if the feedback means the guess was the secret
+     */
+    public boolean isSolved(int feedback) {
+        return feedback == solved;
+    }
+
+    /**
+     * Packs a code written as colors. Guesses may repeat colors even when secrets may not.
+     *
+     * @param code the code, one color character per peg
+     * @return the packed code, or {@link #INVALID} if the code has the wrong length or an unknown color
+     */
+    public int encode(CharSequence code) {
+        if (code.length() != codeLength) {
+            return INVALID;
+        }
+        int packed = 0;
+        for (int i = 0; i < codeLength; i++) {
+            int color = colorIndex(code.charAt(i));
+            if (color < 0) {
+                return INVALID;
+            }
+            packed |= color << (i << 2);
+        }
+        return packed;
+    }
+
+    /**
+     * @param code a packed code
+     * @return the code written as colors
+     */
+    public String decode(int code) {
+        char[] chars = new char[codeLength];
+        for (int i = 0; i < codeLength; i++) {
+            chars[i] = colors[code >>> (i << 2) & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @param code a packed code
+     * @return true if the code could be a secret under these rules
+     */
+    public boolean isValidSecret(int code) {
+        int used = 0;
+        for (int i = 0; i < codeLength; i++) {
+            int color = code >>> (i << 2) & 0xF;
+            if (color >= colors.length || (!allowDuplicates && (used & 1 << color) != 0)) {
+                return false;
+            }
+            used |= 1 << color;
+        }
+        return true;
+    }
+
+    /**
+     * Draws a random secret. Without duplicates, each peg picks among the colors not yet
+     * used, so no draw is ever thrown away.
+     *
+     * @param random the source of randomness
+     * @return the packed secret
+     */
+    public int randomCode(RandomGenerator random) {
+        int code = 0;
+        int unused = (1 << colors.length) - 1;
+        for (int i = 0; i < codeLength; i++) {
+            int color;
+            if (allowDuplicates) {
+                color = random.nextInt(colors.length);
+            } else {
+                int rest = unused;
+                for (int n = random.nextInt(Integer.bitCount(unused)); n > 0; n--) {
+                    rest &= rest - 1;
+                }
+                color = Integer.numberOfTrailingZeros(rest);
+                unused &= ~(1 << color);
+            }
+            code |= color << (i << 2);
+        }
+        return code;
+    }
+
+    /**
+     * Lists every possible secret, in order of the colors of the first peg, then the second, and so on.
+     *
+     * @return the packed secrets
+     */
+    public int[] allCodes() {
+        int total = 1;
+        for (int i = 0; i < codeLength; i++) {
+            total = Math.multiplyExact(total, colors.length);
+        }
+        int[] codes = new int[total];
+        int count = 0;
+        for (int value = 0; value < total; value++) {
+            int rest = value;
+            int code = 0;
+            for (int i = codeLength - 1; i >= 0; i--) {
+                code |= rest % colors.length << (i << 2);
+                rest /= colors.length;
+            }
+            if (allowDuplicates || isValidSecret(code)) {
+                codes[count++] = code;
+            }
+        }
+        return Arrays.copyOf(codes, count);
+    }
+
+    private int colorIndex(char color) {
+        for (int i = 0; i < colors.length; i++) {
+            if (colors[i] == color) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the colors a code is made of
+     */
+    public char[] getColors() {
+        return colors.clone();
+    }
+
+    /**
+     * @return the number of pegs in a code
+     */
+    public int getCodeLength() {
+        return codeLength;
+    }
+
+    /**
+     * @return true if a secret may use a color more than once
+     */
+    public boolean allowsDuplicates() {
+        return allowDuplicates;
+    }
+
+    /**
+     * @return the number of guesses a player gets
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    @Override
+    public String toString() {
+        return "MastermindEngine{" +
+                "colors=" + new String(colors) +
+                ", codeLength=" + codeLength +
+                ", allowDuplicates=" + allowDuplicates +
+                ", maxAttempts=" + maxAttempts +
+                '}';
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * The MastermindGameContext holds the state of a single Mastermind game: the rules, the
+ * secret code, the attempts left and the last guess with its feedback.
+ *
+ * <p>Every game gets its own context, so any number of games can be played at the same
+ * time on different threads. A context itself is not thread-safe and should only be used
+ * by the thread playing its game.</p>
+ */
+public class MastermindGameContext {
+    private final int playerId;
+    private final MastermindEngine engine;
+    private final int secret;
+    private int attemptsLeft;
+    private int guesses;
+    private int lastGuess = MastermindEngine.INVALID;
+    private int lastFeedback = -1;
+    private Object playerState;
+
+    /**
+     * Creates the context for a new game.
+     *
+     * @param playerId the ID of the player playing the game
+     * @param engine the rules of the game
+     * @param secret the packed secret code
+     * @throws IllegalArgumentException if the secret is not allowed by the rules
+     */
+    public MastermindGameContext(int playerId, MastermindEngine engine, int secret) {
+        if (!engine.isValidSecret(secret)) {
+            throw new IllegalArgumentException("not a secret of this game: " + secret);
+        }
+        this.playerId = playerId;
+        this.engine = engine;
+        this.secret = secret;
+        this.attemptsLeft = engine.getMaxAttempts();
+    }
+
+    /**
+     * Plays this game to the end with the given player, reporting every step to the observer.
+     *
+     * @param player the player making the guesses
+     * @param observer the observer that receives game events
+     * @return true if the player won, false if the player lost
+     */
+    public boolean playWith(MastermindInterface player, GameObserver observer) {
+        LogHistogram decisions = GameMetrics.ENABLED ? GameMetrics.get().decisionLatency(player) : null;
+        observer.gameStarted(playerId, engine.decode(secret));
+        while (true) {
+            String guess;
+            if (decisions != null) {
+                long start = System.nanoTime();
+                guess = player.getGuess(this);
+                decisions.record(System.nanoTime() - start);
+            } else {
+                guess = player.getGuess(this);
+            }
+            observer.guessMade(playerId, guess);
+            int feedback = processGuess(guess);
+            if (engine.isSolved(feedback)) {
+                if (GameMetrics.ENABLED) {
+                    GameMetrics.get().gamePlayed(guesses);
+                }
+                observer.gameWon(playerId);
+                return true;
+            }
+            observer.codeScored(playerId, guess, MastermindEngine.exact(feedback), MastermindEngine.partial(feedback));
+            if (attemptsLeft == 0) {
+                if (GameMetrics.ENABLED) {
+                    GameMetrics.get().gamePlayed(guesses);
+                }
+                observer.gameLost(playerId);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Uses up one attempt to score a guess against the secret.
+     *
+     * @param guess the guess, one color character per peg
+     * @return the feedback packed by {@link MastermindEngine#feedback(int, int)}
+     * @throws IllegalArgumentException if the guess is not a code of this game
+     * @throws IllegalStateException if no attempts are left
+     */
+    public int processGuess(String guess) {
+        int code = engine.encode(guess);
+        if (code == MastermindEngine.INVALID) {
+            throw new IllegalArgumentException("not a code of this game: " + guess);
+        }
+        return processGuess(code);
+    }
+
+    /**
+     * Uses up one attempt to score a packed guess against the secret.
+     *
+     * @param guess the packed guess
+     * @return the feedback packed by {@link MastermindEngine#feedback(int, int)}
+     * @throws IllegalStateException if no attempts are left
+     */
+    public int processGuess(int guess) {
+        if (attemptsLeft == 0) {
+            throw new IllegalStateException("no attempts left");
+        }
+        attemptsLeft--;
+        guesses++;
+        lastGuess = guess;
+        lastFeedback = engine.score(guess, secret);
+        return lastFeedback;
+    }
+
+    /**
+     * Calculates the score for the game based on whether the player won.
+     *
+     * @param won true if the player won, false if the player lost
+     * @return the calculated score as an integer
+     */
+    public int calculateScore(boolean won) {
+        return won ? attemptsLeft * 10 : 0;
+    }
+
+    /**
+     * @return the ID of the player playing this game
+     */
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * @return the rules of this game
+     */
+    public MastermindEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * @return the packed secret code, which players must not look at
+     */
+    public int getSecret() {
+        return secret;
+    }
+
+    /**
+     * @return the number of guesses the player has left
+     */
+    public int getAttemptsLeft() {
+        return attemptsLeft;
+    }
+
+    /**
+     * @return the number of guesses made so far
+     */
+    public int getGuesses() {
+        return guesses;
+    }
+
+    /**
+     * @return the last packed guess, or {@link MastermindEngine#INVALID} before the first guess
+     */
+    public int getLastGuess() {
+        return lastGuess;
+    }
+
+    /**
+     * @return the packed feedback for the last guess, or -1 before the first guess
+     */
+    public int getLastFeedback() {
+        return lastFeedback;
+    }
+
+    /**
+     * @return the state the player keeps for this game, or null if it has not stored any
+     */
+    public Object getPlayerState() {
+        return playerState;
+    }
+
+    /**
+     * Stores state that the player needs from one guess to the next in this game. Players
+     * are shared by many games, so per-game bookkeeping belongs here rather than in the player.
+     *
+     * @param playerState the player's state for this game
+     */
+    public void setPlayerState(Object playerState) {
+        this.playerState = playerState;
+    }
+
+    @Override
+    public String toString() {
+        return "MastermindGameContext{" +
+                "playerId=" + playerId +
+                ", attemptsLeft=" + attemptsLeft +
+                ", guesses=" + guesses +
+                (lastGuess != MastermindEngine.INVALID ? ", lastGuess=" + engine.decode(lastGuess) : "") +
+                '}';
+    }
+}
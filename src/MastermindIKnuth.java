@@ -0,0 +1,107 @@
+import java.util.Objects;
+
+/**
+ * The MastermindIKnuth class implements the MastermindInterface with a
+ * {@link MastermindSolver}, guessing by Knuth's minimax rule. The codes that
+ * are still possible in a game are kept in the game's context, so one player
+ * can play any number of games at once.
+ */
+public class MastermindIKnuth implements MastermindInterface {
+    /** The unique player ID for this instance. */
+    private int playerId;
+    /** The league this player belongs to, which hands out its player IDs. */
+    private final AllGameRecord allGameRecords;
+    private final MastermindSolver solver;
+    private final String fingerprint;
+
+    /**
+     * Constructor for MastermindIKnuth that plays the classic game.
+     *
+     * @param allGameRecords the league that hands out this player's IDs
+     */
+    public MastermindIKnuth(AllGameRecord allGameRecords) {
+        this(allGameRecords, MastermindSolver.classic());
+    }
+
+    /**
+     * Constructor for MastermindIKnuth that plays the game of the given solver.
+     *
+     * @param allGameRecords the league that hands out this player's IDs
+     * @param solver the solver for the rules the player will be asked to play
+     */
+    public MastermindIKnuth(AllGameRecord allGameRecords, MastermindSolver solver) {
+        this.allGameRecords = allGameRecords;
+        this.playerId = allGameRecords.generateNewPlayerId();
+        this.solver = solver;
+        // The guesses only depend on the rules the solver was built for.
+        this.fingerprint = getClass().getName() + ":" + solver.getEngine();
+    }
+
+    /**
+     * Narrows the possible codes down by the feedback for the last guess and
+     * picks the next guess.
+     *
+     * @param game the state of the game being played
+     * @return the next guess
+     * @throws IllegalArgumentException if the game is not played by the solver's rules
+     */
+    @Override
+    public String getGuess(MastermindGameContext game) {
+        if (game.getEngine() != solver.getEngine()) {
+            throw new IllegalArgumentException("this player solves " + solver.getEngine() + ", not " + game.getEngine());
+        }
+        MastermindSolver.State state;
+        if (game.getPlayerState() instanceof MastermindSolver.State known) {
+            state = known;
+        } else {
+            state = solver.newGame();
+            game.setPlayerState(state);
+        }
+        if (state.guesses() < game.getGuesses()) {
+            state.answer(solver.indexOf(game.getLastGuess()), game.getLastFeedback());
+        }
+        return state.nextGuess();
+    }
+
+    /**
+     * Retrieves the player ID for this instance.
+     *
+     * @return the unique player ID
+     */
+    @Override
+    public int playerId() {
+        return this.playerId;
+    }
+
+    @Override
+    public String fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Resets the player ID by generating a new unique ID.
+     */
+    @Override
+    public void reset() {
+        playerId = allGameRecords.generateNewPlayerId();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MastermindIKnuth that)) return false;
+        return playerId == that.playerId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(playerId);
+    }
+
+    @Override
+    public String toString() {
+        return "MastermindIKnuth{" +
+                "playerId=" + playerId +
+                '}';
+    }
+}
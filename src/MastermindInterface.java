@@ -0,0 +1,44 @@
+/**
+ * The MastermindInterface defines the essential methods for a Mastermind player, the
+ * counterpart of {@link WOFInterface} for Mastermind. It includes methods for obtaining the
+ * player's next guess, retrieving the player's unique ID, and resetting the player.
+ *
+ * <p>Players read the state of the game from the {@link MastermindGameContext} they are given
+ * and keep any per-game bookkeeping in it, so one player can play many games at the same time.</p>
+ */
+public interface MastermindInterface {
+
+    /**
+     * Retrieves the next guess from the player for the given game.
+     *
+     * @param game the state of the game being played, including the feedback for the last guess
+     * @return the next guess, one color character per peg
+     */
+    String getGuess(MastermindGameContext game);
+
+    /**
+     * Retrieves the unique ID associated with this player.
+     *
+     * @return an integer representing the player's unique ID
+     */
+    int playerId();
+
+    /**
+     * Identifies the strategy of this player; it is stored with each of the player's game
+     * records, as {@link WOFInterface#fingerprint()} is for Wheel of Fortune. Players that
+     * would make the same guesses in every game must return equal fingerprints, and players
+     * that might not must return different ones. The default is the class name, which suits
+     * players with no settings of their own.
+     *
+     * @return the fingerprint of the player's strategy
+     */
+    default String fingerprint() {
+        return getClass().getName();
+    }
+
+    /**
+     * Resets the player's state to start over as a new player. This method may involve
+     * resetting the player ID or any other player-specific attributes.
+     */
+    void reset();
+}
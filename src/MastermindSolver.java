@@ -0,0 +1,363 @@
+import java.util.Arrays;
+
+/**
+ * The MastermindSolver class plays Mastermind as the code breaker, using Knuth's minimax
+ * strategy: each guess is the code whose worst-case feedback leaves the fewest codes that are
+ * still consistent with every answer so far.
+ *
+ * <p>Every code of the game is numbered, and the feedback of every guess against every secret
+ * is computed once with a {@link MastermindEngine} into a table of bytes, each holding the packed
+ * feedback. The table grows with the square of the number of codes, so the solver is meant for
+ * variants of up to a few thousand codes, such as the classic game. Scoring a guess against the
+ * remaining codes is then a run of table lookups.</p>
+ *
+ * <p>The strategy is deterministic, so the solver remembers its decisions in a tree shared by
+ * every game: the opening guess is worked out when the solver is built, and each later position
+ * is worked out by the first game that reaches it. Every other game reaching that position just
+ * follows the tree, so once the common positions are known a decision is a single lookup.</p>
+ *
+ * <p>A solver can be shared by any number of games and threads; the codes still in play
+ * for one game are kept in a {@link State}.</p>
+ */
+public final class MastermindSolver {
+    /** The largest number of codes a solver takes on, which keeps the table at 16 MB. */
+    public static final int MAX_CODES = 4096;
+
+    private static MastermindSolver classic;
+
+    private final MastermindEngine engine;
+    private final int codeCount;
+    // The packed codes, in increasing order.
+    private final int[] codes;
+    private final byte[] feedback;
+    private final int solved;
+    private final Node opening;
+
+    /**
+     * Builds a solver for the given rules.
+     *
+     * @param engine the rules of the game to solve
+     * @throws IllegalArgumentException if the game has more than {@value #MAX_CODES} codes
+     */
+    public MastermindSolver(MastermindEngine engine) {
+        this.engine = engine;
+        this.codes = engine.allCodes();
+        this.codeCount = codes.length;
+        if (codeCount > MAX_CODES) {
+            throw new IllegalArgumentException(codeCount + " codes are too many to solve, at most " + MAX_CODES);
+        }
+        Arrays.sort(codes);
+        this.feedback = new byte[codeCount * codeCount];
+        for (int guess = 0; guess < codeCount; guess++) {
+            for (int secret = 0; secret < codeCount; secret++) {
+                feedback[guess * codeCount + secret] = (byte) engine.score(codes[guess], codes[secret]);
+            }
+        }
+        this.solved = MastermindEngine.feedback(engine.getCodeLength(), 0);
+
+        this.opening = new Node(bestGuess(new State()), solved);
+    }
+
+    /**
+     * Returns the solver for the classic game: six colors, four pegs and no color used twice.
+     * It is built the first time it is asked for and shared afterwards.
+     *
+     * @return the shared solver for the classic game
+     */
+    public static synchronized MastermindSolver classic() {
+        if (classic == null) {
+            classic = new MastermindSolver(MastermindEngine.classic());
+        }
+        return classic;
+    }
+
+    /**
+     * Returns the solver for the given rules, sharing the classic solver when the rules are classic.
+     *
+     * @param engine the rules of the game to solve
+     * @return a solver for those rules
+     */
+    public static MastermindSolver of(MastermindEngine engine) {
+        return engine == MastermindEngine.classic() ? classic() : new MastermindSolver(engine);
+    }
+
+    /**
+     * Starts solving a new game.
+     *
+     * @return the state of a game in which every code is still possible
+     */
+    public State newGame() {
+        return new State();
+    }
+
+    /**
+     * Solves a game against a known secret, as a way to measure the solver.
+     *
+     * @param secret the number of the secret code
+     * @return the number of guesses needed, including the final, winning one
+     */
+    public int solve(int secret) {
+        State state = new State();
+        while (true) {
+            int guess = state.nextGuessIndex();
+            int answer = feedback(guess, secret);
+            if (answer == solved) {
+                return state.guesses + 1;
+            }
+            state.answer(guess, answer);
+        }
+    }
+
+    /**
+     * @param guess the number of the guessed code
+     * @param secret the number of the secret code
+     * @return the packed feedback for the guess against the secret
+     */
+    public int feedback(int guess, int secret) {
+        return feedback[guess * codeCount + secret];
+    }
+
+    /**
+     * @return the number of codes in the game
+     */
+    public int codeCount() {
+        return codeCount;
+    }
+
+    /**
+     * @param index the number of a code
+     * @return the code as a string of colors
+     */
+    public String code(int index) {
+        return engine.decode(codes[index]);
+    }
+
+    /**
+     * @param index the number of a code
+     * @return the packed code
+     */
+    public int packedCode(int index) {
+        return codes[index];
+    }
+
+    /**
+     * @param code a code as a string of colors
+     * @return the number of the code, or -1 if it is not a code of this game
+     */
+    public int indexOf(CharSequence code) {
+        int packed = engine.encode(code);
+        return packed == MastermindEngine.INVALID ? -1 : indexOf(packed);
+    }
+
+    /**
+     * @param code a packed code
+     * @return the number of the code, or -1 if it is not a code of this game
+     */
+    public int indexOf(int code) {
+        int index = Arrays.binarySearch(codes, code);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * @return the rules of the game this solver plays
+     */
+    public MastermindEngine getEngine() {
+        return engine;
+    }
+
+    // Knuth's rule: minimize the largest group of codes an answer could leave, preferring codes
+    // that could still be the secret, then the lowest number.
+    private int bestGuess(State state) {
+        if (state.size <= 2) {
+            return state.candidates[0];
+        }
+        int[] groups = new int[solved + 1];
+        int best = -1;
+        int bestWorst = Integer.MAX_VALUE;
+        boolean bestPossible = false;
+        for (int guess = 0; guess < codeCount; guess++) {
+            boolean possible = state.possible[guess];
+            int worst = 0;
+            int row = guess * codeCount;
+            int counted = 0;
+            while (counted < state.size) {
+                int count = ++groups[feedback[row + state.candidates[counted++]]];
+                if (count > worst) {
+                    worst = count;
+                    // No better than the best so far, so stop counting.
+                    if (worst > bestWorst || (worst == bestWorst && (bestPossible || !possible))) {
+                        break;
+                    }
+                }
+            }
+            // Clearing only the groups that were counted is cheaper than clearing them all.
+            for (int i = 0; i < counted; i++) {
+                groups[feedback[row + state.candidates[i]]] = 0;
+            }
+            if (worst < bestWorst || (worst == bestWorst && possible && !bestPossible)) {
+                best = guess;
+                bestWorst = worst;
+                bestPossible = possible;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public String toString() {
+        return "MastermindSolver{" +
+                "engine=" + engine +
+                ", codeCount=" + codeCount +
+                ", openingGuess=" + code(opening.guess) +
+                '}';
+    }
+
+    /**
+     * The codes still consistent with the answers of one game. A state belongs to one game
+     * and is not thread-safe.
+     */
+    public final class State {
+        private final int[] candidates;
+        private final boolean[] possible;
+        private int size;
+        private int guesses;
+        // The position in the decision tree, or null once the game has left it.
+        private Node node = opening;
+
+        private State() {
+            candidates = new int[codeCount];
+            possible = new boolean[codeCount];
+            for (int code = 0; code < codeCount; code++) {
+                candidates[code] = code;
+            }
+            Arrays.fill(possible, true);
+            size = codeCount;
+        }
+
+        /**
+         * @return the next code to guess
+         */
+        public String nextGuess() {
+            return code(nextGuessIndex());
+        }
+
+        /**
+         * @return the number of the next code to guess
+         * @throws IllegalStateException if no code is consistent with the answers given
+         */
+        public int nextGuessIndex() {
+            if (size == 0) {
+                throw new IllegalStateException("no code matches the feedback given");
+            }
+            return node != null ? node.guess : bestGuess(this);
+        }
+
+        /**
+         * Records the feedback for a guess, keeping only the codes that would have given it.
+         *
+         * @param guess the guessed code
+         * @param exact the number of pegs with the right color in the right position
+         * @param partial the number of pegs with a right color in the wrong position
+         */
+        public void answer(CharSequence guess, int exact, int partial) {
+            int index = indexOf(guess);
+            if (index == -1) {
+                throw new IllegalArgumentException("not a code of this game: " + guess);
+            }
+            answer(index, MastermindEngine.feedback(exact, partial));
+        }
+
+        /**
+         * Records the packed feedback for a guess, keeping only the codes that would have given it.
+         *
+         * @param guess the number of the guessed code
+         * @param answer the packed feedback
+         */
+        public void answer(int guess, int answer) {
+            int row = guess * codeCount;
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int code = candidates[i];
+                if (feedback[row + code] == answer) {
+                    candidates[kept++] = code;
+                } else {
+                    possible[code] = false;
+                }
+            }
+            size = kept;
+            guesses++;
+            node = follow(node, guess, answer);
+        }
+
+        // Moves down the decision tree, working out the next decision if no game has reached it yet.
+        private Node follow(Node from, int guess, int answer) {
+            if (from == null || from.guess != guess || answer == solved || size == 0) {
+                return null;
+            }
+            Node next = from.children[answer];
+            if (next == null) {
+                // Two games may race to fill the same position; both work out the same decision.
+                next = new Node(bestGuess(this), solved);
+                from.children[answer] = next;
+            }
+            return next;
+        }
+
+        /**
+         * @return the number of codes that could still be the secret
+         */
+        public int remaining() {
+            return size;
+        }
+
+        /**
+         * @return the number of answers recorded so far
+         */
+        public int guesses() {
+            return guesses;
+        }
+    }
+
+    /**
+     * One position in the decision tree: the guess to make there and the position each answer
+     * leads to. Its fields are final, so a node published by one thread is seen whole by others.
+     */
+    private static final class Node {
+        final int guess;
+        final Node[] children;
+
+        Node(int guess, int solved) {
+            this.guess = guess;
+            this.children = new Node[solved];
+        }
+    }
+
+    /**
+     * Solves every secret of the classic game and prints how many guesses it took.
+     *
+     * @param args command-line arguments (not used)
+     */
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        MastermindSolver solver = classic();
+        long built = System.nanoTime();
+        int[] histogram = new int[16];
+        long total = 0;
+        int worst = 0;
+        for (int secret = 0; secret < solver.codeCount(); secret++) {
+            int guesses = solver.solve(secret);
+            histogram[Math.min(guesses, histogram.length - 1)]++;
+            total += guesses;
+            worst = Math.max(worst, guesses);
+        }
+        long finished = System.nanoTime();
+
+        System.out.println(solver);
+        System.out.println("Built in " + (built - start) / 1_000_000 + " ms, solved " + solver.codeCount()
+                + " secrets in " + (finished - built) / 1_000_000 + " ms");
+        System.out.println("Average guesses: " + (double) total / solver.codeCount() + ", worst: " + worst);
+        for (int guesses = 1; guesses <= worst; guesses++) {
+            System.out.println(guesses + " guesses: " + histogram[guesses]);
+        }
+    }
+}
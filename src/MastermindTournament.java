@@ -0,0 +1,150 @@
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The MastermindTournament class plays a number of headless Mastermind games with every
+ * player, spreading the games across the threads of a ForkJoinPool.
+ *
+ * <p>Each game runs in its own {@link MastermindGameContext}, and its secret is derived from
+ * the tournament's {@link GameRandom} by player position and game number, so a tournament run
+ * with the same seed and players sets every player the same secrets, however the games are
+ * spread over the threads. Results go straight into the AllGameRecord from the worker threads.</p>
+ */
+public class MastermindTournament {
+    /** Games played by a single task before it stops splitting its range. */
+    private static final int GAMES_PER_TASK = 64;
+
+    private final AllGameRecord allGameRecords;
+    private final MastermindEngine engine;
+    private final GameObserver observer;
+    private final ForkJoinPool pool;
+    private final GameRandom random;
+
+    /**
+     * Creates a headless tournament of the classic game that runs on the common ForkJoinPool.
+     *
+     * @param allGameRecords the AllGameRecord instance that stores game records
+     */
+    public MastermindTournament(AllGameRecord allGameRecords) {
+        this(allGameRecords, MastermindEngine.classic(), QuietGameObserver.INSTANCE, ForkJoinPool.commonPool(), GameRandom.defaults());
+    }
+
+    /**
+     * Creates a tournament that reports game events to the given observer and runs on the given pool.
+     * The observer is called from several threads at once and must be thread-safe.
+     *
+     * @param allGameRecords the AllGameRecord instance that stores game records
+     * @param engine the rules every game is played by
+     * @param observer the observer that receives game events
+     * @param pool the pool that plays the games
+     * @param random the source every secret is derived from
+     */
+    public MastermindTournament(AllGameRecord allGameRecords, MastermindEngine engine, GameObserver observer, ForkJoinPool pool, GameRandom random) {
+        this.allGameRecords = allGameRecords;
+        this.engine = engine;
+        this.observer = observer;
+        this.pool = pool;
+        this.random = random;
+    }
+
+    /**
+     * @return the source of randomness of this tournament, whose seed replays it
+     */
+    public GameRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Plays the given number of games with every player and records the results.
+     *
+     * @param players the players implementing MastermindInterface
+     * @param gamesPerPlayer the number of games each player plays
+     * @return the AllGameRecord containing all game records
+     */
+    public AllGameRecord run(ArrayList<? extends MastermindInterface> players, int gamesPerPlayer) {
+        MastermindInterface[] playerArray = players.toArray(new MastermindInterface[0]);
+        pool.invoke(new PlayGames(playerArray, gamesPerPlayer, 0, (long) playerArray.length * gamesPerPlayer));
+        return allGameRecords;
+    }
+
+    /**
+     * Plays one game and records its result.
+     *
+     * @param player the player making the guesses
+     * @param playerIndex the position of the player in the tournament
+     * @param gameNumber the number of the game among the player's games
+     */
+    private void playGame(MastermindInterface player, int playerIndex, int gameNumber) {
+        int playerId = player.playerId();
+        int secret = engine.randomCode(random.split(playerIndex).split(gameNumber).generator());
+        MastermindGameContext game = new MastermindGameContext(playerId, engine, secret);
+        boolean won = game.playWith(player, observer);
+        GameRecord gameRecord = new GameRecord(game.calculateScore(won), playerId, GameType.MASTERMIND, player.fingerprint());
+        allGameRecords.add(gameRecord);
+        observer.recordWritten(gameRecord);
+    }
+
+    /**
+     * Plays the games in a range of the players x games grid, splitting the range in half
+     * until it is small enough to play on one thread.
+     */
+    private class PlayGames extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final MastermindInterface[] players;
+        private final int gamesPerPlayer;
+        private final long from;
+        private final long to;
+
+        PlayGames(MastermindInterface[] players, int gamesPerPlayer, long from, long to) {
+            this.players = players;
+            this.gamesPerPlayer = gamesPerPlayer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                for (long i = from; i < to; i++) {
+                    int playerIndex = (int) (i / gamesPerPlayer);
+                    playGame(players[playerIndex], playerIndex, (int) (i % gamesPerPlayer));
+                }
+                return;
+            }
+            long middle = (from + to) >>> 1;
+            invokeAll(new PlayGames(players, gamesPerPlayer, from, middle), new PlayGames(players, gamesPerPlayer, middle, to));
+        }
+    }
+
+    /**
+     * Runs a headless tournament of the Knuth player over the classic game and prints the average score.
+     *
+     * @param args the number of games to play; defaults to 100000
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        AllGameRecord allGames = new AllGameRecord();
+        if (GameMetrics.ENABLED) {
+            GameMetrics.get().watchRecordStore(allGames::size);
+        }
+        GameRandom random = GameRandom.defaults();
+        ArrayList<MastermindInterface> players = new ArrayList<>();
+        players.add(new MastermindIKnuth(allGames));
+
+        long start = System.nanoTime();
+        new MastermindTournament(allGames, MastermindEngine.classic(), QuietGameObserver.INSTANCE, ForkJoinPool.commonPool(), random)
+                .run(players, games);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Played " + allGames.size() + " games in " + elapsedMillis + " ms");
+        System.out.println("Replay with -D" + GameRandom.SEED_PROPERTY + "=" + random.seed());
+        for (MastermindInterface player : players) {
+            System.out.println("The average score for Player " + player.playerId() + " is " + allGames.playerAverage(player.playerId()));
+        }
+        if (GameMetrics.ENABLED) {
+            System.out.println(GameMetrics.get());
+        }
+    }
+}
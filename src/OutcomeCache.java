@@ -0,0 +1,197 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The OutcomeCache class remembers the outcome of Wheel of Fortune games played by
+ * deterministic players, so replaying such a player on a phrase it has already played becomes
+ * a lookup instead of a game.
+ *
+ * <p>A player is only cached if {@link WOFInterface#isDeterministic()} says its guesses depend
+ * on nothing but the game. Outcomes are keyed by the player's
+ * {@link WOFInterface#fingerprint()}, the wrong answers allowed and the phrase, so players of
+ * the same strategy share entries whatever their player IDs.</p>
+ *
+ * <p>The cache holds a bounded number of outcomes and evicts the least recently used. Entries
+ * are spread over several segments by the hash of their key, each an access-ordered
+ * LinkedHashMap behind its own lock, so games on different threads rarely wait on each other;
+ * eviction is least recently used within a segment. Hits and misses are counted so the savings
+ * can be seen.</p>
+ *
+ * <p>A looked-up game makes no guesses, so outcomes are only looked up for games nobody
+ * watches: with any observer other than a quiet one the game is played, so every guess is
+ * still reported. Each outcome keeps the number of guesses its game took, so a looked-up game
+ * is counted in {@link GameMetrics} just as a played one.</p>
+ */
+public final class OutcomeCache {
+    /** The number of outcomes the shared cache holds. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int SEGMENTS = 16;
+    private static final OutcomeCache SHARED = new OutcomeCache(DEFAULT_CAPACITY);
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param capacity the largest number of outcomes to hold
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    public OutcomeCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+        }
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(Math.max(1, (capacity + SEGMENTS - 1 - i) / SEGMENTS));
+        }
+    }
+
+    /**
+     * @return the cache shared by every WOFAI and WOFTournament that is not given its own
+     */
+    public static OutcomeCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Plays a game, or looks up its outcome if the player is deterministic, the observer is
+     * quiet and the player has played the same phrase with the same wrong answers before. A
+     * looked-up game is counted in the metrics as played, and the context is left unplayed.
+     *
+     * @param game the game to play
+     * @param player the AI player making the guesses
+     * @param observer the observer that receives game events
+     * @return the score of the game
+     */
+    public int play(WOFGameContext game, WOFInterface player, GameObserver observer) {
+        if (!player.isDeterministic()) {
+            return game.calculateScore(game.playWith(player, observer));
+        }
+        Key key = new Key(player.fingerprint(), game.getWrongAnswers(), game.getPhrase());
+        Segment segment = segments[key.hash & (SEGMENTS - 1)];
+        if (observer.isQuiet()) {
+            Long outcome;
+            synchronized (segment) {
+                outcome = segment.get(key);
+            }
+            if (outcome != null) {
+                hits.increment();
+                if (GameMetrics.ENABLED) {
+                    GameMetrics.get().gamePlayed((int) outcome.longValue());
+                }
+                return (int) (outcome >> 32);
+            }
+            // Only a lookup that found nothing is a miss; watched games are not looked up at all.
+            misses.increment();
+        }
+        int score = game.calculateScore(game.playWith(player, observer));
+        synchronized (segment) {
+            segment.put(key, (long) score << 32 | game.getGuesses());
+        }
+        return score;
+    }
+
+    /**
+     * @return the number of games whose outcome was looked up
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of games that were looked up but had to be played, not counting games
+     * played for an observer that is not quiet
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of outcomes held
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Forgets every outcome and resets the counters.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "OutcomeCache{" +
+                "hits=" + hits() +
+                ", misses=" + misses() +
+                ", size=" + size() +
+                '}';
+    }
+
+    /**
+     * One segment of the cache: an access-ordered map that drops its least recently used
+     * outcome when it grows past its capacity. An outcome holds the score in its high 32 bits
+     * and the number of guesses in its low 32 bits.
+     */
+    private static final class Segment extends LinkedHashMap<Key, Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Long> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    /**
+     * The player strategy, wrong answers allowed and phrase that decide a deterministic game.
+     */
+    private static final class Key {
+        private final String fingerprint;
+        private final int wrongAnswers;
+        private final String phrase;
+        private final int hash;
+
+        Key(String fingerprint, int wrongAnswers, String phrase) {
+            this.fingerprint = fingerprint;
+            this.wrongAnswers = wrongAnswers;
+            this.phrase = phrase;
+            int h = (fingerprint.hashCode() * 31 + wrongAnswers) * 31 + phrase.hashCode();
+            this.hash = h ^ (h >>> 16);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key that)) return false;
+            return hash == that.hash && wrongAnswers == that.wrongAnswers
+                    && phrase.equals(that.phrase) && fingerprint.equals(that.fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
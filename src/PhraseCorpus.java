@@ -0,0 +1,167 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.random.RandomGenerator;
+
+/**
+ * The PhraseCorpus interface is a read-only, indexed collection of phrases for Wheel of
+ * Fortune games. Phrases are numbered from 0 to size() - 1 and are only decoded when asked
+ * for, so a corpus can be much larger than the phrases a run actually uses.
+ *
+ * <p>Games draw phrases through a {@link PhraseCursor}, which hands out every phrase once in
+ * random order. Implementations must allow phrases to be read from several threads at once.</p>
+ */
+public interface PhraseCorpus {
+
+    /**
+     * @return the number of phrases in the corpus
+     */
+    int size();
+
+    /**
+     * Decodes and returns one phrase.
+     *
+     * @param index the number of the phrase, from 0 to size() - 1
+     * @return the phrase as a string
+     */
+    String phrase(int index);
+
+    /**
+     * Creates a cursor that draws every phrase of this corpus once, in random order.
+     *
+     * @param random the source of randomness for the draw order
+     * @return a new cursor positioned before the first draw
+     */
+    default PhraseCursor cursor(RandomGenerator random) {
+        return new PhraseCursor(this, random);
+    }
+
+    /**
+     * Returns a list view of the corpus. Phrases are decoded as they are read from the list.
+     *
+     * @return an unmodifiable list backed by this corpus
+     */
+    default List<String> asList() {
+        class PhraseList extends AbstractList<String> implements RandomAccess {
+            @Override
+            public String get(int index) {
+                return phrase(index);
+            }
+
+            @Override
+            public int size() {
+                return PhraseCorpus.this.size();
+            }
+        }
+        return new PhraseList();
+    }
+
+    /** The phrase file the games read by default. */
+    String DEFAULT_FILE = "phrases.txt";
+
+    /**
+     * Opens a phrase file by memory-mapping it. A file compiled with
+     * {@link CompiledPhraseCorpus#compile(PhraseCorpus, Path)} is opened as it is; any other file
+     * is read as one phrase per line, using a line-offset index written earlier with
+     * {@link MappedPhraseCorpus#writeIndex()} if it is still current, or else scanning the file
+     * once.
+     *
+     * @param path the phrase file to open
+     * @return the opened corpus
+     * @throws IOException if the file cannot be read
+     */
+    static PhraseCorpus open(Path path) throws IOException {
+        if (CompiledPhraseCorpus.isCompiled(path)) {
+            return CompiledPhraseCorpus.open(path);
+        }
+        return MappedPhraseCorpus.open(path);
+    }
+
+    /**
+     * Chooses the phrase file the games read: the compiled corpus ("phrases.wofc") if it has
+     * been compiled since "phrases.txt" last changed, and "phrases.txt" otherwise.
+     *
+     * @return the path of the phrase file to open
+     */
+    static Path defaultPath() {
+        Path text = Path.of(DEFAULT_FILE);
+        Path compiled = Path.of("phrases" + CompiledPhraseCorpus.EXTENSION);
+        if (!Files.exists(compiled)) {
+            return text;
+        }
+        if (!Files.exists(text)) {
+            return compiled;
+        }
+        try {
+            if (Files.getLastModifiedTime(compiled).compareTo(Files.getLastModifiedTime(text)) >= 0) {
+                return compiled;
+            }
+        } catch (IOException e) {
+            // The modification times cannot be read: use the text file.
+        }
+        return text;
+    }
+
+    /**
+     * Wraps phrases that are already in memory.
+     *
+     * @param phrases the phrases of the corpus
+     * @return a corpus holding a copy of the phrases
+     */
+    static PhraseCorpus of(List<String> phrases) {
+        List<String> copy = List.copyOf(phrases);
+        return new PhraseCorpus() {
+            @Override
+            public int size() {
+                return copy.size();
+            }
+
+            @Override
+            public String phrase(int index) {
+                return copy.get(index);
+            }
+
+            @Override
+            public List<String> asList() {
+                return copy;
+            }
+        };
+    }
+
+    /**
+     * Draws a uniform random sample of phrases from a phrase file in a single streaming pass
+     * (reservoir sampling). Only the sample is kept in memory, so this works for corpora that
+     * are too big to index or map.
+     *
+     * @param path the phrase file to sample
+     * @param sampleSize the number of phrases to keep
+     * @param random the source of randomness for the sample
+     * @return a corpus holding at most sampleSize phrases
+     * @throws IOException if the file cannot be read
+     */
+    static PhraseCorpus reservoir(Path path, int sampleSize, RandomGenerator random) throws IOException {
+        List<String> sample = new ArrayList<>(sampleSize);
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            long seen = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (sample.size() < sampleSize) {
+                    sample.add(line);
+                } else {
+                    long slot = random.nextLong(seen + 1);
+                    if (slot < sampleSize) {
+                        sample.set((int) slot, line);
+                    }
+                }
+                seen++;
+            }
+        }
+        return of(sample);
+    }
+}
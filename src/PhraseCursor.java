@@ -0,0 +1,134 @@
+import java.util.NoSuchElementException;
+import java.util.random.RandomGenerator;
+
+/**
+ * The PhraseCursor class draws the phrases of a corpus without replacement, in random order.
+ *
+ * <p>It runs a Fisher-Yates shuffle one step per draw. Instead of materializing the whole
+ * permutation up front, it only remembers the positions that have been swapped, so creating
+ * a cursor is free, every draw costs O(1), and memory grows with the number of draws rather
+ * than the size of the corpus. A cursor is meant to be used by one game at a time.</p>
+ */
+public class PhraseCursor {
+    private final PhraseCorpus corpus;
+    private final RandomGenerator random;
+    private int remaining;
+
+    // Open-addressing map from a swapped position to the phrase index now stored there.
+    private int[] swappedPositions = new int[16];
+    private int[] swappedIndexes = new int[16];
+    private boolean[] used = new boolean[16];
+    private int swapped;
+
+    /**
+     * Creates a cursor over every phrase of the corpus.
+     *
+     * @param corpus the corpus to draw from
+     * @param random the source of randomness for the draw order
+     */
+    public PhraseCursor(PhraseCorpus corpus, RandomGenerator random) {
+        this.corpus = corpus;
+        this.random = random;
+        this.remaining = corpus.size();
+    }
+
+    /**
+     * @return true if there are phrases left to draw
+     */
+    public boolean hasNext() {
+        return remaining > 0;
+    }
+
+    /**
+     * @return the number of phrases left to draw
+     */
+    public int remaining() {
+        return remaining;
+    }
+
+    /**
+     * Draws the next phrase.
+     *
+     * @return the drawn phrase
+     * @throws NoSuchElementException if every phrase has been drawn
+     */
+    public String next() {
+        return corpus.phrase(nextIndex());
+    }
+
+    /**
+     * Draws the number of the next phrase, without decoding it.
+     *
+     * @return the index of the drawn phrase in the corpus
+     * @throws NoSuchElementException if every phrase has been drawn
+     */
+    public int nextIndex() {
+        if (remaining == 0) {
+            throw new NoSuchElementException("No more phrases available!");
+        }
+        int pick = random.nextInt(remaining);
+        int last = remaining - 1;
+        int drawn = indexAt(pick);
+        if (pick != last) {
+            put(pick, indexAt(last));
+        }
+        remaining = last;
+        return drawn;
+    }
+
+    private int indexAt(int position) {
+        int mask = swappedPositions.length - 1;
+        for (int i = mix(position) & mask; used[i]; i = (i + 1) & mask) {
+            if (swappedPositions[i] == position) {
+                return swappedIndexes[i];
+            }
+        }
+        return position;
+    }
+
+    private void put(int position, int index) {
+        if ((swapped + 1) * 2 > swappedPositions.length) {
+            grow();
+        }
+        int mask = swappedPositions.length - 1;
+        int i = mix(position) & mask;
+        while (used[i]) {
+            if (swappedPositions[i] == position) {
+                swappedIndexes[i] = index;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        used[i] = true;
+        swappedPositions[i] = position;
+        swappedIndexes[i] = index;
+        swapped++;
+    }
+
+    private void grow() {
+        int[] oldPositions = swappedPositions;
+        int[] oldIndexes = swappedIndexes;
+        boolean[] oldUsed = used;
+        swappedPositions = new int[oldPositions.length * 2];
+        swappedIndexes = new int[oldPositions.length * 2];
+        used = new boolean[oldPositions.length * 2];
+        swapped = 0;
+        for (int i = 0; i < oldPositions.length; i++) {
+            if (oldUsed[i]) {
+                put(oldPositions[i], oldIndexes[i]);
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public String toString() {
+        return "PhraseCursor{" +
+                "remaining=" + remaining +
+                '}';
+    }
+}
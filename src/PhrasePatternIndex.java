@@ -0,0 +1,133 @@
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The PhrasePatternIndex class groups the phrases of a corpus by their word-length signature,
+ * the hidden form a phrase has before any letter is guessed ("*** *****" for "the heart").
+ * A player that sees a hidden phrase can look up every phrase it might be in one step and then
+ * narrow them down as letters are revealed.
+ *
+ * <p>The phrases of one signature all have the same length, so their characters are stored
+ * back to back in a single array, together with the set of letters each phrase contains and
+ * how many of the phrases contain each letter. The index is built once and is read-only
+ * afterwards, so any number of games can use it at the same time.</p>
+ */
+public final class PhrasePatternIndex {
+    private static final int LETTERS = 26;
+
+    private final Map<String, Group> groups;
+    private final int size;
+
+    private PhrasePatternIndex(Map<String, Group> groups, int size) {
+        this.groups = groups;
+        this.size = size;
+    }
+
+    /**
+     * Builds the index for every phrase of a corpus.
+     *
+     * @param corpus the phrases to index
+     * @return the index
+     */
+    public static PhrasePatternIndex of(PhraseCorpus corpus) {
+        // The first pass counts the phrases of each signature, so the second pass can fill
+        // arrays of the right size without copying.
+        Map<String, int[]> counts = new HashMap<>();
+        for (int i = 0; i < corpus.size(); i++) {
+            counts.computeIfAbsent(signature(corpus.phrase(i)), key -> new int[1])[0]++;
+        }
+        Map<String, Group> groups = new HashMap<>(counts.size() * 2);
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            groups.put(entry.getKey(), new Group(entry.getKey().length(), entry.getValue()[0]));
+        }
+        for (int i = 0; i < corpus.size(); i++) {
+            String phrase = corpus.phrase(i);
+            groups.get(signature(phrase)).add(phrase);
+        }
+        return new PhrasePatternIndex(groups, corpus.size());
+    }
+
+    /**
+     * Finds the phrases that share the signature of a hidden phrase. Only the positions of
+     * spaces matter, so the hidden phrase may already have letters revealed.
+     *
+     * @param hiddenPhrase the hidden phrase, or any phrase with the same word lengths
+     * @return the group of phrases with that signature, or null if there are none
+     */
+    Group group(CharSequence hiddenPhrase) {
+        return groups.get(signature(hiddenPhrase));
+    }
+
+    /**
+     * @return the number of phrases in the index
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of distinct signatures in the index
+     */
+    public int signatures() {
+        return groups.size();
+    }
+
+    private static String signature(CharSequence phrase) {
+        return WOFGameContext.hide(phrase).toString();
+    }
+
+    @Override
+    public String toString() {
+        return "PhrasePatternIndex{" +
+                "size=" + size +
+                ", signatures=" + groups.size() +
+                '}';
+    }
+
+    /**
+     * The phrases of one signature. Phrase k of the group occupies
+     * {@code text[k * length]} up to {@code text[(k + 1) * length]}.
+     */
+    static final class Group {
+        final int length;
+        final char[] text;
+        final int[] letterMasks;
+        // The number of phrases in the group containing each letter at least once.
+        final int[] letterCounts = new int[LETTERS];
+        int size;
+
+        private Group(int length, int capacity) {
+            this.length = length;
+            this.text = new char[length * capacity];
+            this.letterMasks = new int[capacity];
+        }
+
+        private void add(String phrase) {
+            phrase.getChars(0, length, text, size * length);
+            int mask = LetterMask.of(phrase);
+            letterMasks[size++] = mask;
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                letterCounts[Integer.numberOfTrailingZeros(rest)]++;
+            }
+        }
+
+        /**
+         * Checks whether a letter sits in a phrase of this group exactly where it has been
+         * revealed in the hidden phrase, and nowhere else.
+         *
+         * @param phrase the number of the phrase in this group
+         * @param letter the revealed letter
+         * @param hiddenPhrase the hidden phrase of the game
+         * @return true if the phrase agrees with the hidden phrase for this letter
+         */
+        boolean matches(int phrase, char letter, CharSequence hiddenPhrase) {
+            int offset = phrase * length;
+            for (int i = 0; i < length; i++) {
+                if ((text[offset + i] == letter) != (hiddenPhrase.charAt(i) == letter)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * The QuietGameObserver ignores every game event. It is meant for bulk simulation, where
+ * thousands or millions of AI games are played and only the game records matter.
+ *
+ * <p>The observer holds no state, so the single shared {@link #INSTANCE} can be used by
+ * any number of games at once.</p>
+ */
+public final class QuietGameObserver implements GameObserver {
+    /** The shared instance; the observer has no state, so one is enough. */
+    public static final QuietGameObserver INSTANCE = new QuietGameObserver();
+
+    private QuietGameObserver() {
+    }
+
+    @Override
+    public void message(String message) {
+    }
+
+    @Override
+    public void gameStarted(int playerId, CharSequence hiddenPhrase) {
+    }
+
+    @Override
+    public void guessRequested(int playerId, CharSequence previousGuesses, CharSequence hiddenPhrase) {
+    }
+
+    @Override
+    public void guessMade(int playerId, String guess) {
+    }
+
+    @Override
+    public void letterRevealed(int playerId, char letter, CharSequence hiddenPhrase) {
+    }
+
+    @Override
+    public void letterMissed(int playerId, char letter, int wrongAnswersLeft) {
+    }
+
+    @Override
+    public void codeScored(int playerId, String guess, int exactMatches, int partialMatches) {
+    }
+
+    @Override
+    public void gameWon(int playerId) {
+    }
+
+    @Override
+    public void gameLost(int playerId) {
+    }
+
+    @Override
+    public void recordWritten(GameRecord record) {
+    }
+
+    @Override
+    public boolean isQuiet() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "QuietGameObserver{}";
+    }
+}
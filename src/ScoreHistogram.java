@@ -0,0 +1,237 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The ScoreHistogram class counts how many games ended with each score.
+ *
+ * <p>Games score from a handful of values (0 for a loss and a multiple of 10 for a win), so
+ * the histogram keeps one counter per score rather than the scores themselves. Scores from 0
+ * up to {@value #DENSE_LIMIT} are counted in an array indexed by the score, which only grows
+ * as far as the highest score seen, so counting a game is a single array increment. Any other
+ * score goes to a sorted array of the scores seen with a parallel array of counts. The median,
+ * any percentile, the fraction of games that scored and the whole distribution are worked out from the counters in
+ * time proportional to their number, however many games were counted. Percentiles are exact:
+ * each is a score some game really got.</p>
+ *
+ * <p>AllGameRecord keeps a histogram inside each {@link ScoreStats}. The instances it hands out
+ * are snapshots and are not updated afterwards. Instances are not thread-safe.</p>
+ */
+public final class ScoreHistogram {
+    /** Scores from 0 up to, but not including, this limit are counted by index. */
+    public static final int DENSE_LIMIT = 1 << 12;
+    private static final int INITIAL_CAPACITY = 4;
+
+    // Counts of the scores 0 to dense.length - 1, by score.
+    private long[] dense = new long[0];
+    // Counts of the other scores, sorted by score.
+    private int[] sparseScores = new int[INITIAL_CAPACITY];
+    private long[] sparseCounts = new long[INITIAL_CAPACITY];
+    private int sparseSize;
+    private long count;
+
+    /**
+     * Counts one game.
+     *
+     * @param score the score of the game
+     */
+    void add(int score) {
+        if (score >= 0 && score < dense.length) {
+            dense[score]++;
+            count++;
+        } else {
+            add(score, 1);
+        }
+    }
+
+    /**
+     * Counts every game counted by another histogram.
+     *
+     * @param other the histogram to merge in
+     */
+    void merge(ScoreHistogram other) {
+        for (int score = 0; score < other.dense.length; score++) {
+            if (other.dense[score] != 0) {
+                add(score, other.dense[score]);
+            }
+        }
+        for (int i = 0; i < other.sparseSize; i++) {
+            add(other.sparseScores[i], other.sparseCounts[i]);
+        }
+    }
+
+    /**
+     * Counts several games with the same score.
+     *
+     * @param score the score of the games
+     * @param games the number of games
+     */
+    void add(int score, long games) {
+        count += games;
+        if (score >= 0 && score < DENSE_LIMIT) {
+            if (score >= dense.length) {
+                dense = Arrays.copyOf(dense, Math.min(DENSE_LIMIT, Math.max(score + 1, dense.length * 2)));
+            }
+            dense[score] += games;
+            return;
+        }
+        int i = Arrays.binarySearch(sparseScores, 0, sparseSize, score);
+        if (i < 0) {
+            i = -i - 1;
+            if (sparseSize == sparseScores.length) {
+                sparseScores = Arrays.copyOf(sparseScores, sparseSize * 2);
+                sparseCounts = Arrays.copyOf(sparseCounts, sparseSize * 2);
+            }
+            System.arraycopy(sparseScores, i, sparseScores, i + 1, sparseSize - i);
+            System.arraycopy(sparseCounts, i, sparseCounts, i + 1, sparseSize - i);
+            sparseScores[i] = score;
+            sparseCounts[i] = 0;
+            sparseSize++;
+        }
+        sparseCounts[i] += games;
+    }
+
+    // Lists the scores counted, lowest first, with their counts, and returns how many there are:
+    // the negative sparse scores, then the dense scores, then the sparse scores above them.
+    // The arrays must have room for maxBuckets() entries.
+    private int buckets(int[] scores, long[] counts) {
+        int n = 0;
+        int i = 0;
+        for (; i < sparseSize && sparseScores[i] < 0; i++, n++) {
+            scores[n] = sparseScores[i];
+            counts[n] = sparseCounts[i];
+        }
+        for (int score = 0; score < dense.length; score++) {
+            if (dense[score] != 0) {
+                scores[n] = score;
+                counts[n++] = dense[score];
+            }
+        }
+        for (; i < sparseSize; i++, n++) {
+            scores[n] = sparseScores[i];
+            counts[n] = sparseCounts[i];
+        }
+        return n;
+    }
+
+    private int maxBuckets() {
+        return dense.length + sparseSize;
+    }
+
+    /**
+     * @return the number of games counted
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @param score a score
+     * @return the number of games counted with that score
+     */
+    public long count(int score) {
+        if (score >= 0 && score < dense.length) {
+            return dense[score];
+        }
+        int i = Arrays.binarySearch(sparseScores, 0, sparseSize, score);
+        return i < 0 ? 0 : sparseCounts[i];
+    }
+
+    /**
+     * Returns the score at a percentile: the lowest score that at least that fraction of the
+     * games did not beat (the nearest-rank method).
+     *
+     * @param fraction the percentile as a fraction, from 0 to 1
+     * @return the score, or 0 if no games were counted
+     * @throws IllegalArgumentException if the fraction is not between 0 and 1
+     */
+    public int percentile(double fraction) {
+        if (!(fraction >= 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("percentile must be between 0 and 1: " + fraction);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        int[] scores = new int[maxBuckets()];
+        long[] counts = new long[scores.length];
+        int buckets = buckets(scores, counts);
+        long seen = 0;
+        for (int i = 0; i < buckets; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return scores[i];
+            }
+        }
+        return scores[buckets - 1];
+    }
+
+    /**
+     * @return the median score (the lower of the two middle scores when the count is even),
+     * or 0 if no games were counted
+     */
+    public int getMedian() {
+        return percentile(0.5);
+    }
+
+    /**
+     * @return the score 90% of the games did not beat, or 0 if no games were counted
+     */
+    public int getP90() {
+        return percentile(0.9);
+    }
+
+    /**
+     * @return the score 99% of the games did not beat, or 0 if no games were counted
+     */
+    public int getP99() {
+        return percentile(0.99);
+    }
+
+    /**
+     * Returns the fraction of games that scored more than 0. A lost game always scores 0, and a
+     * won Wheel of Fortune game always scores at least 10, so for Wheel of Fortune games this is
+     * the win rate. It is not for Mastermind, where a code solved on the last attempt also
+     * scores 0.
+     *
+     * @return the fraction of games that scored more than 0, or NaN if no games were counted
+     */
+    public double getScoredRate() {
+        long won = 0;
+        for (int score = 1; score < dense.length; score++) {
+            won += dense[score];
+        }
+        for (int i = 0; i < sparseSize; i++) {
+            if (sparseScores[i] > 0) {
+                won += sparseCounts[i];
+            }
+        }
+        return (double) won / count;
+    }
+
+    /**
+     * @return the number of games with each score, from the lowest score to the highest
+     */
+    public Map<Integer, Long> getDistribution() {
+        int[] scores = new int[maxBuckets()];
+        long[] counts = new long[scores.length];
+        int buckets = buckets(scores, counts);
+        Map<Integer, Long> distribution = new TreeMap<>();
+        for (int i = 0; i < buckets; i++) {
+            distribution.put(scores[i], counts[i]);
+        }
+        return distribution;
+    }
+
+    @Override
+    public String toString() {
+        return "ScoreHistogram{" +
+                "count=" + count +
+                ", median=" + getMedian() +
+                ", p90=" + getP90() +
+                ", p99=" + getP99() +
+                ", scoredRate=" + getScoredRate() +
+                ", distribution=" + getDistribution() +
+                '}';
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * The ScoreStats class holds running statistics over a set of scores: how many games were
+ * played, the sum, lowest and highest of their scores, and a {@link ScoreHistogram} of how
+ * many games ended with each score.
+ *
+ * <p>AllGameRecord keeps one ScoreStats for all games and one per player, updating them as
+ * each game is added, so averages are answered without scanning the game history. The
+ * instances AllGameRecord hands out are snapshots and are not updated afterwards.</p>
+ */
+public final class ScoreStats {
+    private long count;
+    private long sum;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+    private final ScoreHistogram histogram = new ScoreHistogram();
+
+    /**
+     * Adds one score to the statistics.
+     *
+     * @param score the score to add
+     */
+    void add(int score) {
+        count++;
+        sum += score;
+        if (score < min) {
+            min = score;
+        }
+        if (score > max) {
+            max = score;
+        }
+        histogram.add(score);
+    }
+
+    /**
+     * Adds several games with the same score to the statistics.
+     *
+     * @param score the score of the games
+     * @param games the number of games, at least 1
+     */
+    void add(int score, long games) {
+        count += games;
+        sum += score * games;
+        min = Math.min(min, score);
+        max = Math.max(max, score);
+        histogram.add(score, games);
+    }
+
+    /**
+     * Adds every score counted by another set of statistics to this one.
+     *
+     * @param other the statistics to merge in
+     */
+    void merge(ScoreStats other) {
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        histogram.merge(other.histogram);
+    }
+
+    /**
+     * @return the number of games counted
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the sum of all scores counted
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * @return the lowest score counted, or Integer.MAX_VALUE if no games were counted
+     */
+    public int getMin() {
+        return min;
+    }
+
+    /**
+     * @return the highest score counted, or Integer.MIN_VALUE if no games were counted
+     */
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * @return how many games ended with each score
+     */
+    public ScoreHistogram getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * @return the average score, or NaN if no games were counted
+     */
+    public float average() {
+        return (float) sum / count;
+    }
+
+    @Override
+    public String toString() {
+        return "ScoreStats{" +
+                "count=" + count +
+                ", sum=" + sum +
+                ", min=" + min +
+                ", max=" + max +
+                '}';
+    }
+}
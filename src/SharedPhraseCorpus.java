@@ -0,0 +1,186 @@
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.random.RandomGenerator;
+
+/**
+ * The SharedPhraseCorpus class gives every game in the process the same phrase corpus, so a
+ * phrase file is opened and indexed once no matter how many games or players use it.
+ *
+ * <p>The corpus is published as an immutable snapshot. A background thread watches the
+ * file and, when it changes, opens the new version and swaps it in atomically. Games that
+ * are already running keep drawing from the snapshot they started with; games created after
+ * the swap see the new phrases.</p>
+ *
+ * <p>Snapshots stay mapped for as long as games use them. A compiled corpus is mapped
+ * directly: {@link CompiledPhraseCorpus#compile} only ever replaces the file with an atomic
+ * move, so a mapped version is never written to. A text file can be edited in place, so a
+ * snapshot never maps it: each version is first copied, with its line index if it has one,
+ * into a directory private to this process, and the copy is mapped. The copy's directory entry
+ * is removed once it is mapped, so nothing else can change it, and the file can be edited in
+ * place or replaced without changing the phrases of a running game. An edit caught half way
+ * only affects the new snapshot, and the next change event replaces that one.</p>
+ */
+public final class SharedPhraseCorpus {
+    private static final ConcurrentHashMap<Path, SharedPhraseCorpus> SHARED = new ConcurrentHashMap<>();
+    private static final long SETTLE_MILLIS = 100;
+
+    private final Path path;
+    private final AtomicReference<PhraseCorpus> snapshot;
+    private final WatchService watchService;
+    // Where the copies of each version of a text file are mapped from, created on first use.
+    private Path copies;
+    private int version;
+
+    private SharedPhraseCorpus(Path path) throws IOException {
+        this.path = path;
+        this.snapshot = new AtomicReference<>(openVersion());
+        this.watchService = FileSystems.getDefault().newWatchService();
+        Path directory = path.getParent() != null ? path.getParent() : path.toAbsolutePath().getParent();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread watcher = new Thread(this::watch, "phrase-corpus-watcher-" + path.getFileName());
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Returns the shared corpus for a phrase file, opening it and starting its watcher the
+     * first time the file is asked for.
+     *
+     * @param path the phrase file
+     * @return the shared corpus for that file
+     * @throws IOException if the file cannot be opened
+     */
+    public static SharedPhraseCorpus of(Path path) throws IOException {
+        Path key = path.toAbsolutePath().normalize();
+        SharedPhraseCorpus shared = SHARED.get(key);
+        if (shared != null) {
+            return shared;
+        }
+        synchronized (SHARED) {
+            shared = SHARED.get(key);
+            if (shared == null) {
+                shared = new SharedPhraseCorpus(key);
+                SHARED.put(key, shared);
+            }
+            return shared;
+        }
+    }
+
+    /**
+     * @return the current snapshot of the corpus; it never changes after it is returned
+     */
+    public PhraseCorpus snapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Creates a draw cursor over the current snapshot.
+     *
+     * @param random the source of randomness for the draw order
+     * @return a new cursor over the snapshot current at the time of the call
+     */
+    public PhraseCursor cursor(RandomGenerator random) {
+        return snapshot().cursor(random);
+    }
+
+    /**
+     * Opens the phrase file again and swaps the new snapshot in. If the file cannot be read,
+     * the current snapshot is kept.
+     *
+     * @return true if a new snapshot was published
+     */
+    public boolean reload() {
+        try {
+            snapshot.set(openVersion());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Keeping the current phrases, could not reload " + path + ": " + e);
+            return false;
+        }
+    }
+
+    // Opens the current version of the file: a compiled corpus as it is, a text file through a copy.
+    private synchronized PhraseCorpus openVersion() throws IOException {
+        if (CompiledPhraseCorpus.isCompiled(path)) {
+            return PhraseCorpus.open(path);
+        }
+        if (copies == null) {
+            copies = Files.createTempDirectory("wof-phrases-");
+            copies.toFile().deleteOnExit();
+        }
+        Path copy = copies.resolve(++version + "-" + path.getFileName());
+        Path index = Path.of(path + MappedPhraseCorpus.INDEX_SUFFIX);
+        Path indexCopy = Path.of(copy + MappedPhraseCorpus.INDEX_SUFFIX);
+        try {
+            // The copy keeps the file's modification time, which tells whether the index is current.
+            Files.copy(path, copy, StandardCopyOption.COPY_ATTRIBUTES);
+            if (Files.isRegularFile(index)) {
+                Files.copy(index, indexCopy, StandardCopyOption.COPY_ATTRIBUTES);
+            }
+            return PhraseCorpus.open(copy);
+        } finally {
+            delete(indexCopy);
+            delete(copy);
+        }
+    }
+
+    // A mapped file stays readable after its name is removed; where it cannot be removed while mapped, it goes at exit.
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            file.toFile().deleteOnExit();
+        }
+    }
+
+    private void watch() {
+        Path fileName = path.getFileName();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (fileName.equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    // Let a burst of writes settle before reading the new version.
+                    TimeUnit.MILLISECONDS.sleep(SETTLE_MILLIS);
+                    drainPendingEvents();
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // The watcher is a daemon and simply stops.
+        }
+    }
+
+    private void drainPendingEvents() {
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            key.pollEvents();
+            key.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SharedPhraseCorpus{" +
+                "path=" + path +
+                ", snapshot=" + snapshot.get() +
+                '}';
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * The TextGameObserver is an abstract base class for observers that describe game events
+ * as lines of text. It turns each event into the same messages the games have always
+ * printed, and leaves it to subclasses to decide where those lines are written.
+ *
+ * <p>Subclasses only need to implement {@link #writeLine(String)}.</p>
+ */
+abstract class TextGameObserver implements GameObserver {
+
+    /**
+     * Writes a single line of text describing a game event.
+     *
+     * @param line the line to write, without a trailing line separator
+     */
+    protected abstract void writeLine(String line);
+
+    @Override
+    public void message(String message) {
+        writeLine(message);
+    }
+
+    @Override
+    public void gameStarted(int playerId, CharSequence hiddenPhrase) {
+        writeLine("Current playerId: " + playerId);
+        writeLine(hiddenPhrase.toString());
+    }
+
+    @Override
+    public void guessRequested(int playerId, CharSequence previousGuesses, CharSequence hiddenPhrase) {
+        writeLine("You have already guessed these letters: " + previousGuesses);
+        writeLine(hiddenPhrase.toString());
+        writeLine("Guess a Letter");
+    }
+
+    @Override
+    public void guessMade(int playerId, String guess) {
+        writeLine("Player guessed " + guess);
+    }
+
+    @Override
+    public void letterRevealed(int playerId, char letter, CharSequence hiddenPhrase) {
+        // A correct guess is shown by the next prompt, so there is nothing extra to print.
+    }
+
+    @Override
+    public void letterMissed(int playerId, char letter, int wrongAnswersLeft) {
+        writeLine("Nope. Wrong Answers left: " + wrongAnswersLeft);
+    }
+
+    @Override
+    public void codeScored(int playerId, String guess, int exactMatches, int partialMatches) {
+        writeLine("Feedback: " + exactMatches + " exact, " + partialMatches + " partial.");
+    }
+
+    @Override
+    public void gameWon(int playerId) {
+        writeLine("You won!");
+    }
+
+    @Override
+    public void gameLost(int playerId) {
+        writeLine("You lost!");
+    }
+
+    @Override
+    public void recordWritten(GameRecord record) {
+        writeLine("Game recorded with score: " + record.score);
+    }
+}
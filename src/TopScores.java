@@ -0,0 +1,141 @@
+import java.util.Arrays;
+
+/**
+ * The TopScores class keeps the n highest scores it is offered, together with a reference to
+ * the record each score belongs to, in a bounded min-heap of primitives. What a reference
+ * means is up to the caller: AllGameRecord uses the stripe and position of a stored record,
+ * and the list-based high score methods use the index into the list.
+ *
+ * <p>The lowest kept score sits at the root, so a new score is either rejected with one
+ * comparison or replaces the root in O(log n). Every offer is numbered, and ties are broken by
+ * that number: the score offered first is kept and listed first, which matches the stable sort
+ * the game lists used before. {@link #offerAll} offers the other heap's scores in the order they
+ * were offered to it. Instances are not thread-safe.</p>
+ */
+final class TopScores {
+    private final int[] scores;
+    private final long[] refs;
+    private final long[] seqs;
+    private int size;
+    private long nextSeq;
+
+    /**
+     * Creates an empty heap that keeps at most {@code capacity} scores.
+     *
+     * @param capacity the number of scores to keep
+     */
+    TopScores(int capacity) {
+        this.scores = new int[capacity];
+        this.refs = new long[capacity];
+        this.seqs = new long[capacity];
+    }
+
+    /**
+     * Offers a score to the heap. It is kept if the heap is not full yet or if it beats the
+     * lowest score kept so far.
+     *
+     * @param score the score to offer
+     * @param ref the reference to the record the score belongs to
+     */
+    void offer(int score, long ref) {
+        long seq = nextSeq++;
+        if (size < scores.length) {
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!lower(score, seq, parent)) {
+                    break;
+                }
+                move(parent, i);
+                i = parent;
+            }
+            set(i, score, ref, seq);
+        } else if (size > 0 && score > scores[0]) {
+            // An equal score would be the latest offered, so it loses the tie.
+            siftDown(score, ref, seq);
+        }
+    }
+
+    /**
+     * Offers every score kept by another heap to this one.
+     *
+     * @param other the heap whose scores are offered
+     */
+    void offerAll(TopScores other) {
+        Integer[] order = new Integer[other.size];
+        for (int i = 0; i < other.size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i, j) -> Long.compare(other.seqs[i], other.seqs[j]));
+        for (int i : order) {
+            offer(other.scores[i], other.refs[i]);
+        }
+    }
+
+    /**
+     * @return the number of scores kept
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the maximum number of scores this heap keeps
+     */
+    int capacity() {
+        return scores.length;
+    }
+
+    /**
+     * Returns the references of the kept scores, highest score first and equal scores in the
+     * order they were offered, without changing the heap.
+     *
+     * @return a new array of references in descending order of score
+     */
+    long[] refs() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i, j) -> scores[i] != scores[j] ? Integer.compare(scores[j], scores[i]) : Long.compare(seqs[i], seqs[j]));
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = refs[order[i]];
+        }
+        return sorted;
+    }
+
+    private void siftDown(int score, long ref, long seq) {
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && lower(scores[right], seqs[right], child)) {
+                child = right;
+            }
+            if (lower(score, seq, child)) {
+                break;
+            }
+            move(child, i);
+            i = child;
+        }
+        set(i, score, ref, seq);
+    }
+
+    // Whether a score and its offer number belong nearer the root than the entry at i: a lower
+    // score, or the same score offered later.
+    private boolean lower(int score, long seq, int i) {
+        return score < scores[i] || (score == scores[i] && seq > seqs[i]);
+    }
+
+    private void move(int from, int to) {
+        set(to, scores[from], refs[from], seqs[from]);
+    }
+
+    private void set(int i, int score, long ref, long seq) {
+        scores[i] = score;
+        refs[i] = ref;
+        seqs[i] = seq;
+    }
+}
@@ -0,0 +1,338 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The TournamentCoordinator class runs a Wheel of Fortune tournament across several worker
+ * JVMs, on one machine or many, and merges their results.
+ *
+ * <p>The tournament is the same grid of strategies x phrases that {@link WOFTournament} plays,
+ * cut into work units of one strategy and a range of phrases. Each connected
+ * {@link TournamentWorker} is served by its own thread, which hands it one unit at a time and
+ * waits for the unit's score histogram (see {@link TournamentProtocol}). The histograms are
+ * merged into one {@link ScoreStats} per strategy, so the coordinator never holds individual
+ * games. Every worker derives its games' random choices from the same seed, so the merged
+ * results are exactly those of a single WOFTournament with that seed.</p>
+ *
+ * <p>If a worker disconnects, dies or takes longer than the unit timeout, its unit goes back
+ * to the queue and is handed to the next free worker; a result that arrives for a unit that
+ * is already finished is ignored. A unit the worker reports as failed is not played again,
+ * since every worker would fail it the same way: it is left out of the results and counted by
+ * {@link #getFailedUnits()}. Workers can join at any time until the last unit is done.</p>
+ */
+public class TournamentCoordinator implements Closeable {
+    /** The port the coordinator listens on when none is given. */
+    public static final int DEFAULT_PORT = 4515;
+    /** The number of phrases in a work unit when none is given. */
+    public static final int DEFAULT_UNIT_PHRASES = 8192;
+    /** How long a worker may take over one unit before it is given up for lost. */
+    private static final int UNIT_TIMEOUT_MILLIS = (int) TimeUnit.MINUTES.toMillis(10);
+
+    private final ServerSocket server;
+    private final Path corpusPath;
+    private final int corpusSize;
+    private final List<String> strategies;
+    private final GameRandom random;
+    private final int unitPhrases;
+    private final int unitsPerStrategy;
+    // Guarded by this.
+    private final ArrayDeque<Integer> pending = new ArrayDeque<>();
+    private final BitSet finished = new BitSet();
+    private final ScoreStats[] results;
+    private int remaining;
+    private int failedUnits;
+    private int workers;
+    private int workersLost;
+
+    /**
+     * Opens a coordinator on the given address. Workers are only served once {@link #run()}
+     * is called.
+     *
+     * @param address the address to listen on; port 0 picks a free port
+     * @param corpusPath the phrase file, which every worker must be able to open at the same path
+     * @param strategies the strategies to play, each one of the built-in player names
+     * ("random", "common", "vowelFirst" or "pattern")
+     * @param random the source every game's random choices are derived from
+     * @param unitPhrases the number of phrases in a work unit
+     * @throws IOException if the phrase file cannot be read or the address cannot be bound
+     */
+    public TournamentCoordinator(InetSocketAddress address, Path corpusPath, List<String> strategies, GameRandom random,
+                                 int unitPhrases) throws IOException {
+        if (unitPhrases < 1) {
+            throw new IllegalArgumentException("units must hold at least one phrase: " + unitPhrases);
+        }
+        for (String strategy : strategies) {
+            if (!TournamentProtocol.DEFAULT_STRATEGIES.contains(strategy)) {
+                throw new IllegalArgumentException("unknown strategy: " + strategy);
+            }
+        }
+        this.corpusPath = corpusPath.toAbsolutePath();
+        this.corpusSize = PhraseCorpus.open(corpusPath).size();
+        this.strategies = List.copyOf(strategies);
+        this.random = random;
+        this.unitPhrases = unitPhrases;
+        this.unitsPerStrategy = (corpusSize + unitPhrases - 1) / unitPhrases;
+        this.results = new ScoreStats[strategies.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = new ScoreStats();
+        }
+        for (int unit = 0; unit < strategies.size() * unitsPerStrategy; unit++) {
+            pending.add(unit);
+        }
+        this.remaining = pending.size();
+        this.server = new ServerSocket();
+        server.bind(address);
+    }
+
+    /**
+     * @return the port the coordinator is listening on
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Serves workers until every unit has been played, then tells the workers still connected
+     * that the work is done.
+     *
+     * @return the merged statistics of each strategy, in the order the strategies were given,
+     * without the games of units that failed
+     * @throws InterruptedException if the thread is interrupted while waiting for workers
+     */
+    public ScoreStats[] run() throws InterruptedException {
+        Thread acceptor = new Thread(this::acceptWorkers, "tournament-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        synchronized (this) {
+            while (remaining > 0) {
+                wait();
+            }
+        }
+        close();
+        return results;
+    }
+
+    private void acceptWorkers() {
+        try {
+            while (true) {
+                Socket socket = server.accept();
+                Thread worker = new Thread(() -> serve(socket), "tournament-worker-" + socket.getPort());
+                worker.setDaemon(true);
+                worker.start();
+            }
+        } catch (IOException e) {
+            // The server socket was closed: every unit is done.
+        }
+    }
+
+    // Hands units to one worker until none are left or the worker is lost.
+    private void serve(Socket socket) {
+        Integer unit = null;
+        synchronized (this) {
+            workers++;
+        }
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(UNIT_TIMEOUT_MILLIS);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            if (in.readInt() != TournamentProtocol.MAGIC || in.readInt() != TournamentProtocol.VERSION) {
+                throw new IOException("not a tournament worker of this version");
+            }
+            out.writeLong(random.seed());
+            out.writeUTF(corpusPath.toString());
+            out.writeInt(corpusSize);
+            out.writeInt(strategies.size());
+            for (String strategy : strategies) {
+                out.writeUTF(strategy);
+            }
+            while ((unit = nextUnit()) != null) {
+                int strategy = unit / unitsPerStrategy;
+                int fromPhrase = unit % unitsPerStrategy * unitPhrases;
+                out.writeByte(TournamentProtocol.UNIT);
+                out.writeInt(unit);
+                out.writeInt(strategy);
+                out.writeInt(fromPhrase);
+                out.writeInt(Math.min(corpusSize, fromPhrase + unitPhrases));
+                out.flush();
+                byte reply = in.readByte();
+                if ((reply != TournamentProtocol.RESULT && reply != TournamentProtocol.ERROR) || in.readInt() != unit) {
+                    throw new IOException("unexpected reply to unit " + unit);
+                }
+                if (reply == TournamentProtocol.RESULT) {
+                    finish(unit, TournamentProtocol.readScores(in));
+                } else {
+                    fail(unit, in.readUTF());
+                }
+                unit = null;
+            }
+            out.writeByte(TournamentProtocol.DONE);
+            out.flush();
+        } catch (IOException e) {
+            lost(unit, e);
+        }
+    }
+
+    // Waits for a unit to play, or returns null once every unit is done.
+    private synchronized Integer nextUnit() {
+        while (pending.isEmpty() && remaining > 0) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        return pending.poll();
+    }
+
+    private synchronized void finish(int unit, ScoreStats scores) {
+        if (finished.get(unit)) {
+            // A worker given up for lost finished it after all.
+            return;
+        }
+        finished.set(unit);
+        results[unit / unitsPerStrategy].merge(scores);
+        remaining--;
+        notifyAll();
+    }
+
+    private synchronized void fail(int unit, String reason) {
+        if (finished.get(unit)) {
+            return;
+        }
+        finished.set(unit);
+        failedUnits++;
+        remaining--;
+        System.out.println("Unit " + unit + " failed (" + reason + ") and is left out of the results");
+        notifyAll();
+    }
+
+    private synchronized void lost(Integer unit, IOException e) {
+        if (remaining == 0) {
+            return;
+        }
+        workersLost++;
+        String reason = e.getMessage() != null ? e.getMessage() : e.toString();
+        if (unit != null && !finished.get(unit)) {
+            pending.addFirst(unit);
+            System.out.println("Lost a worker (" + reason + "); unit " + unit + " will be played again");
+        } else {
+            System.out.println("Lost a worker (" + reason + ")");
+        }
+        notifyAll();
+    }
+
+    /**
+     * @return the number of workers that connected
+     */
+    public synchronized int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * @return the number of workers lost before the tournament was done
+     */
+    public synchronized int getWorkersLost() {
+        return workersLost;
+    }
+
+    /**
+     * @return the number of units a worker failed to play, whose games are missing from the
+     * results
+     */
+    public synchronized int getFailedUnits() {
+        return failedUnits;
+    }
+
+    /**
+     * Stops accepting workers. Workers still waiting for a unit are told the work is done.
+     */
+    @Override
+    public void close() {
+        try {
+            server.close();
+        } catch (IOException e) {
+            // Nothing is left to clean up.
+        }
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TournamentCoordinator{" +
+                "port=" + getPort() +
+                ", strategies=" + strategies +
+                ", unitPhrases=" + unitPhrases +
+                '}';
+    }
+
+    /**
+     * Runs a distributed tournament of the built-in players over "phrases.txt" (or its compiled
+     * "phrases.wofc") and prints the merged averages. Workers can be started on this machine by
+     * the coordinator or separately with {@code java TournamentWorker host port}.
+     *
+     * @param args the number of worker JVMs to start on this machine, defaulting to 0, and the
+     * port to listen on, defaulting to {@value #DEFAULT_PORT}
+     * @throws IOException if the phrase file cannot be read, the port cannot be bound or a
+     * worker cannot be started
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int localWorkers = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+        GameRandom random = GameRandom.defaults();
+        TournamentCoordinator coordinator = new TournamentCoordinator(new InetSocketAddress(port), PhraseCorpus.defaultPath(),
+                TournamentProtocol.DEFAULT_STRATEGIES, random, DEFAULT_UNIT_PHRASES);
+        System.out.println("Coordinating on port " + coordinator.getPort());
+
+        // Workers started here share the machine, so each gets its share of the cores.
+        List<Process> processes = new ArrayList<>();
+        int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / Math.max(1, localWorkers));
+        String java = ProcessHandle.current().info().command().orElse("java");
+        for (int i = 0; i < localWorkers; i++) {
+            processes.add(new ProcessBuilder(java, "-Djava.util.concurrent.ForkJoinPool.common.parallelism=" + parallelism,
+                    "-cp", System.getProperty("java.class.path"), "TournamentWorker", "localhost",
+                    String.valueOf(coordinator.getPort())).inheritIO().start());
+        }
+
+        long start = System.nanoTime();
+        ScoreStats[] results = coordinator.run();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        for (Process process : processes) {
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroy();
+            }
+        }
+
+        ScoreStats all = new ScoreStats();
+        for (ScoreStats result : results) {
+            all.merge(result);
+        }
+        System.out.println("Played " + all.getCount() + " games in " + elapsedMillis + " ms on " + coordinator.getWorkers()
+                + " workers (" + coordinator.getWorkersLost() + " lost, " + coordinator.getFailedUnits() + " units failed)");
+        System.out.println("Replay with -D" + GameRandom.SEED_PROPERTY + "=" + random.seed());
+        System.out.println("The average of all scores is " + all.average());
+        for (int i = 0; i < results.length; i++) {
+            System.out.println("The average score for Player " + (i + 1) + " (" + TournamentProtocol.DEFAULT_STRATEGIES.get(i)
+                    + ") is " + results[i].average());
+        }
+        for (int i = 0; i < results.length; i++) {
+            System.out.println("Player " + (i + 1) + " scores: " + results[i].getHistogram());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The TournamentProtocol class holds what the {@link TournamentCoordinator} and its
+ * {@link TournamentWorker}s must agree on: the binary messages they exchange over TCP and the
+ * names of the strategies a tournament can be made of.
+ *
+ * <p>A worker opens the conversation with the magic number and protocol version. The
+ * coordinator answers with the tournament setup (seed, phrase file, phrase count and
+ * strategies) and then sends one work unit at a time: a strategy position and a range of
+ * phrases. The worker plays the unit and returns the scores of its games as a histogram, a
+ * list of distinct scores with the number of games that got each, so a result is a few dozen
+ * bytes however many games the unit holds, or {@link #ERROR} with a message if the unit could
+ * not be played. When no work is left the coordinator sends
+ * {@link #DONE} and the worker exits.</p>
+ */
+final class TournamentProtocol {
+    static final int MAGIC = 0x574F4654; // "WOFT"
+    static final int VERSION = 2;
+
+    /** Coordinator to worker: play a unit. */
+    static final byte UNIT = 1;
+    /** Coordinator to worker: no work is left. */
+    static final byte DONE = 2;
+    /** Worker to coordinator: the scores of a unit. */
+    static final byte RESULT = 3;
+    /** Worker to coordinator: a unit could not be played. */
+    static final byte ERROR = 4;
+
+    /** The strategies of the built-in players, in the order WOFTournament plays them. */
+    static final List<String> DEFAULT_STRATEGIES = List.of("random", "common", "vowelFirst", "pattern");
+
+    private TournamentProtocol() {
+    }
+
+    /**
+     * Creates one player for each strategy, in order, so the players get the same player IDs
+     * and positions in every JVM that creates them from a new league.
+     *
+     * @param strategies the strategy names, each one of {@link #DEFAULT_STRATEGIES}
+     * @param allGameRecords the league that hands out the players' IDs
+     * @param phrases the phrases the players will play
+     * @param random the source of randomness of the tournament
+     * @return the players
+     * @throws IllegalArgumentException if a strategy is not known
+     */
+    static List<WOFInterface> players(List<String> strategies, AllGameRecord allGameRecords, PhraseCorpus phrases, GameRandom random) {
+        List<WOFInterface> players = new ArrayList<>();
+        for (String strategy : strategies) {
+            switch (strategy) {
+                case "random" -> players.add(new WOFIRandom(allGameRecords, random));
+                case "common" -> players.add(new WOFICommon(allGameRecords));
+                case "vowelFirst" -> players.add(new WOFIVowelFirst(allGameRecords));
+                case "pattern" -> players.add(new WOFIPattern(allGameRecords, phrases));
+                default -> throw new IllegalArgumentException("unknown strategy: " + strategy);
+            }
+        }
+        return players;
+    }
+
+    /**
+     * Writes the scores of a unit.
+     *
+     * @param out the stream to the coordinator
+     * @param unit the number of the unit
+     * @param scores the scores of the unit's games
+     * @throws IOException if the stream fails
+     */
+    static void writeResult(DataOutputStream out, int unit, ScoreHistogram scores) throws IOException {
+        Map<Integer, Long> distribution = scores.getDistribution();
+        out.writeByte(RESULT);
+        out.writeInt(unit);
+        out.writeInt(distribution.size());
+        for (Map.Entry<Integer, Long> entry : distribution.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes why a unit could not be played.
+     *
+     * @param out the stream to the coordinator
+     * @param unit the number of the unit
+     * @param e the exception the unit failed with
+     * @throws IOException if the stream fails
+     */
+    static void writeError(DataOutputStream out, int unit, Exception e) throws IOException {
+        out.writeByte(ERROR);
+        out.writeInt(unit);
+        out.writeUTF(String.valueOf(e));
+        out.flush();
+    }
+
+    /**
+     * Reads the scores of a unit, after its number.
+     *
+     * @param in the stream from the worker
+     * @return the statistics of the unit's games
+     * @throws IOException if the stream fails or holds something other than scores
+     */
+    static ScoreStats readScores(DataInputStream in) throws IOException {
+        int distinct = in.readInt();
+        if (distinct < 0) {
+            throw new IOException("bad score count: " + distinct);
+        }
+        ScoreStats stats = new ScoreStats();
+        for (int i = 0; i < distinct; i++) {
+            int score = in.readInt();
+            long games = in.readLong();
+            if (games <= 0) {
+                throw new IOException("bad game count for score " + score + ": " + games);
+            }
+            stats.add(score, games);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,122 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The TournamentWorker class plays work units of a distributed Wheel of Fortune tournament
+ * handed out by a {@link TournamentCoordinator}.
+ *
+ * <p>A worker connects to the coordinator, receives the tournament setup, opens the same
+ * phrase file and creates the same players in the same order, so its games get exactly the
+ * random choices they would get in a single {@link WOFTournament}. Each unit is played with
+ * {@link WOFTournament#runRange} on all of the worker's cores into an AllGameRecord of its own,
+ * and only that record's score histogram is sent back; a unit that throws is reported to the
+ * coordinator instead, and the worker goes on to the next one. Several workers can run on one machine
+ * or on many; losing one only costs the coordinator the unit it was playing.</p>
+ */
+public class TournamentWorker {
+    private final InetSocketAddress coordinator;
+
+    /**
+     * Creates a worker for the coordinator at the given address.
+     *
+     * @param coordinator the address of the coordinator
+     */
+    public TournamentWorker(InetSocketAddress coordinator) {
+        this.coordinator = coordinator;
+    }
+
+    /**
+     * Connects to the coordinator and plays units until it says no work is left.
+     *
+     * @return the number of units played, not counting units that failed
+     * @throws IOException if the connection fails or the phrase file cannot be opened
+     */
+    public int run() throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.connect(coordinator);
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeInt(TournamentProtocol.MAGIC);
+            out.writeInt(TournamentProtocol.VERSION);
+            out.flush();
+
+            GameRandom random = new GameRandom(in.readLong());
+            Path corpusPath = Path.of(in.readUTF());
+            int corpusSize = in.readInt();
+            List<String> strategies = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                strategies.add(in.readUTF());
+            }
+            PhraseCorpus phrases = PhraseCorpus.open(corpusPath);
+            if (phrases.size() != corpusSize) {
+                throw new IOException(corpusPath + " holds " + phrases.size() + " phrases, the coordinator's holds " + corpusSize);
+            }
+            AllGameRecord allGameRecords = new AllGameRecord();
+            List<WOFInterface> players = TournamentProtocol.players(strategies, allGameRecords, phrases, random);
+            WOFTournament tournament = new WOFTournament(allGameRecords, phrases, QuietGameObserver.INSTANCE,
+                    ForkJoinPool.commonPool(), random);
+
+            int units = 0;
+            while (true) {
+                byte message;
+                try {
+                    message = in.readByte();
+                } catch (EOFException e) {
+                    throw new IOException("coordinator closed the connection", e);
+                }
+                if (message == TournamentProtocol.DONE) {
+                    return units;
+                }
+                if (message != TournamentProtocol.UNIT) {
+                    throw new IOException("unexpected message " + message);
+                }
+                int unit = in.readInt();
+                int playerIndex = in.readInt();
+                int fromPhrase = in.readInt();
+                int toPhrase = in.readInt();
+                AllGameRecord played;
+                try {
+                    played = tournament.runRange(players.get(playerIndex), playerIndex, fromPhrase, toPhrase);
+                } catch (RuntimeException e) {
+                    // Playing it again would fail the same way, so the coordinator gives it up.
+                    TournamentProtocol.writeError(out, unit, e);
+                    continue;
+                }
+                TournamentProtocol.writeResult(out, unit, played.histogram());
+                units++;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TournamentWorker{" +
+                "coordinator=" + coordinator +
+                '}';
+    }
+
+    /**
+     * Runs a worker until its coordinator is done.
+     *
+     * @param args the coordinator's host, defaulting to "localhost", and port, defaulting to
+     * {@value TournamentCoordinator#DEFAULT_PORT}
+     * @throws IOException if the connection fails or the phrase file cannot be opened
+     */
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : TournamentCoordinator.DEFAULT_PORT;
+        int units = new TournamentWorker(new InetSocketAddress(host, port)).run();
+        System.out.println("Worker played " + units + " units");
+    }
+}
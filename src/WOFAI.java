@@ -1,7 +1,6 @@
 import java.util.List;
 import java.util.Scanner;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
 
@@ -11,18 +10,27 @@ import java.util.*;
  *
  * <p>The WOFAI class provides constructors to initialize different AI players or player lists,
  * allowing for customized gameplay configurations.</p>
+ *
+ * <p>When the observer is quiet and metrics are off, players that guess in a fixed order are
+ * scored by a {@link FixedOrderScorer} without playing their games guess by guess. Games of other deterministic players go through the
+ * shared {@link OutcomeCache}, so replaying such a player on a phrase it has played before in
+ * this program is a lookup.</p>
  */
 public class WOFAI extends WOFAbstractClass {
-    private StringBuilder phrase;
-    private static StringBuilder hiddenPhrase;
-    private int wrongAnswers;
-    private static Scanner scanner = new Scanner(System.in);
-    private StringBuilder previousGuesses;
-    private List<String> phrases;
+    private WOFGameContext game;
+    private Scanner scanner;
+    private PhraseCorpus corpus;
+    private PhraseCursor phrases;
     private AllGameRecord allGameRecords;
     private int playerId;
     private WOFInterface player;
-    public static int index = 0;
+    private GameObserver observer;
+    private GameRandom random;
+    // The current player's source, split by the player's position in this WOFAI, and then into
+    // one stream for the phrase order and one per game.
+    private GameRandom playerRandom;
+    private int gameNumber;
+    private final OutcomeCache outcomes = OutcomeCache.shared();
 
     @Override
     public boolean equals(Object o) {
@@ -39,9 +47,7 @@ public class WOFAI extends WOFAbstractClass {
     @Override
     public String toString() {
         return "WOFAI{" +
-                "phrase=" + phrase +
-                ", wrongAnswers=" + wrongAnswers +
-                ", previousGuesses=" + previousGuesses +
+                "game=" + game +
                 ", phrases=" + phrases +
                 ", allGameRecords=" + allGameRecords +
                 ", playerId=" + playerId +
@@ -58,13 +64,24 @@ public class WOFAI extends WOFAbstractClass {
      * @param allGameRecords the AllGameRecord instance that manages all game records
      */
     public WOFAI(AllGameRecord allGameRecords) {
-        System.out.println("This is the default implementation with WOFI Random");
-        this.player = new WOFIRandom();
-        this.phrases = readPhrases();
-        resetGame();
-        this.playerId = player.playerId();
+        this(allGameRecords, new ConsoleGameObserver());
+    }
+
+    /**
+     * Constructor that initializes a WOFAI game with a random AI player, reporting game events to the given observer.
+     *
+     * @param allGameRecords the AllGameRecord instance that manages all game records
+     * @param observer the observer that receives game events
+     */
+    public WOFAI(AllGameRecord allGameRecords, GameObserver observer) {
+        this.observer = observer;
+        observer.message("This is the default implementation with WOFI Random");
+        this.random = GameRandom.defaults();
+        this.player = new WOFIRandom(allGameRecords, random);
+        this.corpus = readCorpus();
+        startPlayer(player.playerId(), 0);
         this.allGameRecords = allGameRecords;
-        System.out.println("The default playerId is " + playerId);
+        observer.message("The default playerId is " + playerId);
         playAll(player);
     }
 
@@ -75,13 +92,25 @@ public class WOFAI extends WOFAbstractClass {
      * @param player the chosen WOFInterface player
      */
     public WOFAI(AllGameRecord allGameRecords, WOFInterface player) {
-        System.out.println("This implementation allows user to choose Concrete WOF Interface Implementation");
+        this(allGameRecords, player, new ConsoleGameObserver());
+    }
+
+    /**
+     * Constructor that allows the user to choose a specific AI player, reporting game events to the given observer.
+     *
+     * @param allGameRecords the AllGameRecord instance that manages all game records
+     * @param player the chosen WOFInterface player
+     * @param observer the observer that receives game events
+     */
+    public WOFAI(AllGameRecord allGameRecords, WOFInterface player, GameObserver observer) {
+        this.observer = observer;
+        observer.message("This implementation allows user to choose Concrete WOF Interface Implementation");
+        this.random = GameRandom.defaults();
         this.player = player;
-        this.phrases = readPhrases();
-        resetGame();
-        this.playerId = player.playerId();
+        this.corpus = readCorpus();
+        startPlayer(player.playerId(), 0);
         this.allGameRecords = allGameRecords;
-        System.out.println("The default playerId is " + playerId);
+        observer.message("The default playerId is " + playerId);
         playAll(player);
     }
 
@@ -93,28 +122,65 @@ public class WOFAI extends WOFAbstractClass {
      * @param WOFPlayers the list of AI players implementing WOFInterface
      */
     public WOFAI(AllGameRecord allGameRecords, ArrayList<WOFInterface> WOFPlayers) {
-        System.out.println("This implementation runs a list of Concrete WOF Interface Implementations");
+        this(allGameRecords, WOFPlayers, new ConsoleGameObserver());
+    }
+
+    /**
+     * Constructor that initializes a list of AI players, reporting game events to the given observer.
+     * Passing {@link QuietGameObserver#INSTANCE} runs every game headless, which is the fastest way to simulate many games.
+     *
+     * @param allGameRecords the AllGameRecord instance that manages all game records
+     * @param WOFPlayers the list of AI players implementing WOFInterface
+     * @param observer the observer that receives game events
+     */
+    public WOFAI(AllGameRecord allGameRecords, ArrayList<WOFInterface> WOFPlayers, GameObserver observer) {
+        this(allGameRecords, WOFPlayers, observer, GameRandom.defaults());
+    }
+
+    /**
+     * Constructor that initializes a list of AI players whose phrase order and random guesses
+     * are derived from the given source, so the whole run can be replayed from its seed.
+     *
+     * @param allGameRecords the AllGameRecord instance that manages all game records
+     * @param WOFPlayers the list of AI players implementing WOFInterface
+     * @param observer the observer that receives game events
+     * @param random the source of randomness for the phrase order and the games
+     */
+    public WOFAI(AllGameRecord allGameRecords, ArrayList<WOFInterface> WOFPlayers, GameObserver observer, GameRandom random) {
+        this.observer = observer;
+        observer.message("This implementation runs a list of Concrete WOF Interface Implementations");
         this.WOFPlayers = WOFPlayers;
-        this.phrases = readPhrases();
-        resetGame();
+        this.random = random;
+        this.corpus = readCorpus();
         this.allGameRecords = allGameRecords;
 
-        for (WOFInterface player : WOFPlayers) {
-            this.playerId = player.playerId();
+        for (int position = 0; position < WOFPlayers.size(); position++) {
+            WOFInterface player = WOFPlayers.get(position);
+            startPlayer(player.playerId(), position); // Draw every phrase again for each player
             playAll(player); // Play all games for the current player
-            this.phrases = readPhrases(); // Reload phrases for the next player
-            resetGame();
         }
     }
 
     /**
-     * Resets the game state, initializing a new phrase, hidden phrase, and resetting wrong answers and previous guesses.
+     * Resets the game state, starting a new game context with a new phrase, no wrong answers used and no previous guesses.
      */
     public void resetGame() {
-        this.phrase = randomPhrase();
-        this.hiddenPhrase = generateHiddenPhrase(phrase);
-        this.wrongAnswers = 10;
-        this.previousGuesses = new StringBuilder("");
+        this.game = new WOFGameContext(playerId, randomPhrase(), 10, playerRandom.split(++gameNumber).generator());
+    }
+
+    /**
+     * Starts drawing phrases for a player, in an order derived from the player's position, and sets up the first game.
+     * The position rather than the ID keys the order, as IDs continue from the records of earlier runs.
+     *
+     * @param playerId the ID of the player about to play
+     * @param position the position of the player in this WOFAI's list of players
+     */
+    private void startPlayer(int playerId, int position) {
+        this.playerId = playerId;
+        this.playerRandom = random.split(position);
+        this.phrases = corpus.cursor(playerRandom.generator());
+        this.gameNumber = 0;
+        resetGame();
     }
 
     /**
@@ -125,7 +191,6 @@ public class WOFAI extends WOFAbstractClass {
      */
     public AllGameRecord playAll(WOFInterface player) {
         while (true) {
-            System.out.println("Current playerId: " + playerId);
             play(player);
             if (playNext()) {
                 resetGame();
@@ -142,23 +207,8 @@ public class WOFAI extends WOFAbstractClass {
      * @param player the AI player to play the game
      */
     public void play(WOFInterface player) {
-        WOFAI.index = 0;
-        System.out.println(hiddenPhrase.toString());
-        while (true) {
-            String guess = player.getGuess(previousGuesses);
-            System.out.println("Player guessed " + guess);
-            processGuess(guess);
-
-            if (checkWin()) {
-                System.out.println("You won!");
-                recordGame(true);
-                break;
-            } else if (wrongAnswers <= 0) {
-                System.out.println("You lost!");
-                recordGame(false);
-                break;
-            }
-        }
+        FixedOrderScorer scorer = FixedOrderScorer.of(player, game.getWrongAnswers(), observer);
+        recordGame(player, scorer != null ? scorer.score(game.getPhrase()) : outcomes.play(game, player, observer));
     }
 
     /**
@@ -167,63 +217,57 @@ public class WOFAI extends WOFAbstractClass {
      * @return true if the player has won, false otherwise
      */
     public Boolean checkWin() {
-        return phrase.toString().equals(hiddenPhrase.toString());
+        return game.checkWin();
     }
 
     /**
-     * Records the game result, storing it in AllGameRecord with a calculated score based on game outcome.
+     * Records the game result, storing it in AllGameRecord.
      *
-     * @param won true if the player won, false if the player lost
+     * @param player the AI player that played the game
+     * @param score the score of the game
      */
-    private void recordGame(boolean won) {
-        int score = calculateScore(won);
-        GameRecord gameRecord = new GameRecord(score, playerId);
+    private void recordGame(WOFInterface player, int score) {
+        GameRecord gameRecord = new GameRecord(score, playerId, GameType.WOF_AI, player.fingerprint());
         allGameRecords.add(gameRecord);
-        System.out.println("Game recorded with score: " + score);
+        observer.recordWritten(gameRecord);
     }
 
     /**
-     * Calculates the score for the game based on whether the player won.
+     * Reads phrases from an external file ("phrases.txt", or "phrases.wofc" once compiled) to use in the game.
      *
-     * @param won true if the player won, false if the player lost
-     * @return the calculated score as an integer
+     * @return a List of phrases as strings, decoded as they are read
      */
-    private int calculateScore(boolean won) {
-        return won ? wrongAnswers * 10 : 0;
+    @Override
+    public List<String> readPhrases() {
+        return readCorpus().asList();
     }
 
     /**
-     * Reads phrases from an external file ("phrases.txt") to use in the game.
+     * Returns the current snapshot of the phrase file ({@link PhraseCorpus#defaultPath()}), which is opened once and shared by every game.
      *
-     * @return a List of phrases as strings
+     * @return the corpus, or an empty corpus if the file cannot be read
      */
-    @Override
-    public List<String> readPhrases() {
-        List<String> phraseList = new ArrayList<>();
+    private PhraseCorpus readCorpus() {
         try {
-            phraseList = Files.readAllLines(Paths.get("phrases.txt"));
+            return SharedPhraseCorpus.of(PhraseCorpus.defaultPath()).snapshot();
         } catch (IOException e) {
-            System.out.println(e);
+            observer.message(e.toString());
+            return PhraseCorpus.of(List.of());
         }
-        return phraseList;
     }
 
     /**
-     * Selects a random phrase from the list of phrases and removes it from the list.
+     * Draws a random phrase that has not been played yet.
      *
      * @return the randomly selected phrase as a StringBuilder
      */
     @Override
     public StringBuilder randomPhrase() {
-        if (phrases.isEmpty()) {
-            System.out.println("No more phrases available!");
+        if (!phrases.hasNext()) {
+            observer.message("No more phrases available!");
             return null;
         }
-
-        Random random = new Random();
-        int index = random.nextInt(phrases.size());
-        String selectedPhrase = phrases.remove(index);
-        return new StringBuilder(selectedPhrase);
+        return new StringBuilder(phrases.next());
     }
 
     /**
@@ -233,11 +277,7 @@ public class WOFAI extends WOFAbstractClass {
      * @return the concealed phrase as a StringBuilder
      */
     public StringBuilder generateHiddenPhrase(StringBuilder phrase) {
-        StringBuilder hiddenPhrase = new StringBuilder();
-        for (int i = 0; i < phrase.length(); i++) {
-            hiddenPhrase.append(phrase.charAt(i) == ' ' ? ' ' : "*");
-        }
-        return hiddenPhrase;
+        return WOFGameContext.hide(phrase);
     }
 
     /**
@@ -246,17 +286,7 @@ public class WOFAI extends WOFAbstractClass {
      * @param guess the guessed letter as a string
      */
     public void processGuess(String guess) {
-        String checkLetter = guess.substring(0, 1);
-        if (phrase.indexOf(checkLetter) != -1) {
-            for (int i = 0; i < phrase.length(); i++) {
-                if (checkLetter.charAt(0) == phrase.charAt(i)) {
-                    hiddenPhrase.replace(i, i + 1, checkLetter);
-                }
-            }
-        } else {
-            wrongAnswers--;
-            System.out.println("Nope. Wrong Answers left: " + wrongAnswers);
-        }
+        game.processGuess(guess, observer);
     }
 
     /**
@@ -267,13 +297,16 @@ public class WOFAI extends WOFAbstractClass {
      */
     @Override
     public String getGuess(StringBuilder previousGuesses) {
+        if (scanner == null) {
+            scanner = new Scanner(System.in);
+        }
         while (true) {
             System.out.println("You have already guessed these letters: " + previousGuesses);
-            System.out.println(hiddenPhrase);
+            System.out.println(game.getHiddenPhrase());
             System.out.println("Guess a Letter");
             String guessString = scanner.nextLine().toLowerCase();
 
-            if (guessString.length() != 1 || !Character.isLetter(guessString.charAt(0)) || previousGuesses.indexOf(guessString) != -1) {
+            if (guessString.length() != 1 || !Character.isLetter(guessString.charAt(0)) || game.isGuessed(guessString.charAt(0))) {
                 System.out.println("Invalid guess. Please enter a single unused letter.");
                 continue;
             }
@@ -284,12 +317,12 @@ public class WOFAI extends WOFAbstractClass {
     }
 
     /**
-     * Retrieves the current hidden phrase.
+     * Retrieves the hidden phrase of the game currently being played.
      *
      * @return the hidden phrase as a StringBuilder
      */
-    public static StringBuilder getHiddenPhrase() {
-        return hiddenPhrase;
+    public StringBuilder getHiddenPhrase() {
+        return game.getHiddenPhrase();
     }
 
  @Override
@@ -305,15 +338,22 @@ public class WOFAI extends WOFAbstractClass {
     //Play Next for Default AI
     @Override
     public boolean playNext() {
-        return phrases.size() > 0;
+        return phrases.hasNext();
     }
 
     //Main method to launch the WOF Players
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         int gametype;
         Scanner gameTypeScanner = new Scanner(System.in);
-        AllGameRecord allGames = new AllGameRecord();
+        // Records are journaled to disk, so scores from earlier runs are kept
+        GameRecordJournal journal = new GameRecordJournal(Paths.get("game-journal"));
+        Runtime.getRuntime().addShutdownHook(new Thread(journal::close));
+        AllGameRecord allGames = journal.recover();
+        if (GameMetrics.ENABLED) {
+            GameMetrics.get().watchRecordStore(allGames::size);
+        }
+        System.out.println("Recovered " + allGames.size() + " games from earlier runs");
         while (true) {
             System.out.println("Choose your AI Game:");
             System.out.println("0. for User WOF 1. for Default 2. to Choose 3. to auto-Play all 3 Players 4. Mastermind 5. Averages");
@@ -324,7 +364,7 @@ public class WOFAI extends WOFAbstractClass {
 
                 // Print all game records for verification
                 System.out.println("All games played:");
-                for(GameRecord record : allGames.listOfGameRecords) {
+                for(GameRecord record : allGames.getGameRecords()) {
                     System.out.println("Player ID: " + record.playerId + ", Score: " + record.score);
                 }
             }else if (gametype == 1) {
@@ -333,24 +373,24 @@ public class WOFAI extends WOFAbstractClass {
 
 
                 System.out.println("All games played:");
-                for (GameRecord record : allGames.listOfGameRecords) {
+                for (GameRecord record : allGames.getGameRecords()) {
                     System.out.println("Player ID: " + record.playerId + ", Score: " + record.score);
                 }
             } else if (gametype == 2) {
                 //user chooses player
                 while (true) {
                     System.out.println("Choose a Player: 1. Random 2. Vowel First 3. Common Letters");
-                    int choice = scanner.nextInt();
+                    int choice = gameTypeScanner.nextInt();
                     if (choice == 1) {
-                        WOFIRandom random = new WOFIRandom();
+                        WOFIRandom random = new WOFIRandom(allGames);
                         WOFAI game1 = new WOFAI(allGames, random);
                         break;
                     } else if (choice == 2) {
-                        WOFIVowelFirst vowel = new WOFIVowelFirst();
+                        WOFIVowelFirst vowel = new WOFIVowelFirst(allGames);
                         WOFAI game1 = new WOFAI(allGames, vowel);
                         break;
                     } else if (choice == 3) {
-                        WOFICommon common = new WOFICommon();
+                        WOFICommon common = new WOFICommon(allGames);
                         WOFAI game1 = new WOFAI(allGames, common);
                         break;
                     } else {
@@ -359,38 +399,38 @@ public class WOFAI extends WOFAbstractClass {
                     }
                 }
                 System.out.println("All games played:");
-                for (GameRecord record : allGames.listOfGameRecords) {
+                for (GameRecord record : allGames.getGameRecords()) {
                     System.out.println("Player ID: " + record.playerId + ", Score: " + record.score);
                 }
             } else if (gametype == 3) {
                 //Passing a list of player objects into constructor
                 ArrayList<WOFInterface> wofIArray = new ArrayList<>();
-                WOFIRandom random = new WOFIRandom();
-                WOFICommon common = new WOFICommon();
-                WOFIVowelFirst vowel = new WOFIVowelFirst();
+                WOFIRandom random = new WOFIRandom(allGames);
+                WOFICommon common = new WOFICommon(allGames);
+                WOFIVowelFirst vowel = new WOFIVowelFirst(allGames);
                 wofIArray.add(random);
                 wofIArray.add(common);
                 wofIArray.add(vowel);
                 WOFAI game2 = new WOFAI(allGames, wofIArray);
                 System.out.println("All games played:");
-                for (GameRecord record : allGames.listOfGameRecords) {
+                for (GameRecord record : allGames.getGameRecords()) {
                     System.out.println("Player ID: " + record.playerId + ", Score: " + record.score);
                 }
-                int totalPlayers = 3; // Assuming three players, each with three games
-
                 System.out.println("High Scores for Each Player:");
-                for (int player = 1; player <= totalPlayers; player++) {
-                    System.out.println("Player " + player + " high scores: " + AllGameRecord.highGameListPlayer(player, allGames.listOfGameRecords, 3));
+                for (WOFInterface wofPlayer : wofIArray) {
+                    int player = wofPlayer.playerId();
+                    System.out.println("Player " + player + " high scores: " + allGames.highGameListPlayer(player, 3));
                 }
 
 // Display the average score across all nine games
-                float overallAverage = AllGameRecord.average(allGames.listOfGameRecords);
+                float overallAverage = allGames.average();
                 System.out.println("The average score across all nine games is: " + overallAverage);
 
 // Display the average score for each player individually
                 System.out.println("Average Scores for Each Player:");
-                for (int player = 1; player <= totalPlayers; player++) {
-                    float playerAverage = AllGameRecord.playerAverage(player);
+                for (WOFInterface wofPlayer : wofIArray) {
+                    int player = wofPlayer.playerId();
+                    float playerAverage = allGames.playerAverage(player);
                     System.out.println("The average score for Player " + player + " is: " + playerAverage);
                 }
             } else if(gametype == 4) {
@@ -401,19 +441,42 @@ public class WOFAI extends WOFAbstractClass {
 
                 // Print all game records for verification
                 System.out.println("All games played:");
-                for (GameRecord record : allGames.listOfGameRecords) {
+                for (GameRecord record : allGames.getGameRecords()) {
                     System.out.println("Player ID: " + record.playerId + ", Score: " + record.score);
                 }
             }
             else {
-                System.out.println("The average of all scores is " + AllGameRecord.average(allGames.listOfGameRecords));
-                int totalGames = AllGameRecord.getPlayerId();
+                System.out.println("The average of all scores is " + allGames.average());
+                ScoreHistogram allScores = allGames.histogram();
+                // A Wheel of Fortune game scores exactly when it is won, so the win rate leaves Mastermind out.
+                ScoreStats wofStats = allGames.stats(GameType.WOF_USER);
+                wofStats.merge(allGames.stats(GameType.WOF_AI));
+                System.out.println("The median score is " + allScores.getMedian() + " and the Wheel of Fortune win rate is "
+                        + wofStats.getHistogram().getScoredRate() * 100 + "%");
+                for (GameType type : GameType.values()) {
+                    ScoreStats typeStats = allGames.stats(type);
+                    if (typeStats.getCount() > 0) {
+                        System.out.println("The average of " + typeStats.getCount() + " " + type + " games is " + typeStats.average());
+                    }
+                }
+                long now = System.currentTimeMillis();
+                System.out.println("The average of the last hour's " + allGames.stats(now - 3_600_000, now + 1).getCount()
+                        + " games is " + allGames.average(now - 3_600_000, now + 1));
+                int totalGames = allGames.getPlayerId();
                 //int numberGames = totalGames/2;
-                System.out.println("The 2 highest scores are " + AllGameRecord.highGameList(allGames.listOfGameRecords, 2));
+                System.out.println("The 2 highest scores are " + allGames.highGameList(2));
                 System.out.println("which player would you like to see the highest and average scores for 1-" + totalGames);
                 int player = gameTypeScanner.nextInt();
-                System.out.println("The average of all scores for Player " + player + " is " + AllGameRecord.playerAverage(player));
-                System.out.println("The highest score for player " + player + " is " + AllGameRecord.highGameListPlayer(player, allGames.listOfGameRecords, 1));
+                System.out.println("The average of all scores for Player " + player + " is " + allGames.playerAverage(player));
+                System.out.println("The highest score for player " + player + " is " + allGames.highGameListPlayer(player, 1));
+                ScoreHistogram scores = allGames.playerHistogram(player);
+                System.out.println("Player " + player + " scored in " + scores.getScoredRate() * 100 + "% of " + scores.getCount()
+                        + " games; median score " + scores.getMedian() + ", 90th percentile " + scores.getP90()
+                        + ", 99th percentile " + scores.getP99());
+                System.out.println("Games by score: " + scores.getDistribution());
+                if (GameMetrics.ENABLED) {
+                    System.out.println(GameMetrics.get());
+                }
             }
         }
     }
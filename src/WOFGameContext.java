@@ -0,0 +1,332 @@
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * The WOFGameContext holds the state of a single Wheel of Fortune game: the phrase, the
+ * hidden phrase, the letters guessed so far and the wrong answers left.
+ *
+ * <p>Every game gets its own context, so any number of games can be played at the same
+ * time on different threads. A context itself is not thread-safe and should only be used
+ * by the thread playing its game.</p>
+ *
+ * <p>When the game starts, the positions of every letter 'a' to 'z' in the phrase are
+ * grouped by letter, and the number of characters still hidden is counted. A guess then
+ * only touches the positions of its own letter, and checking for a win is a single
+ * comparison, so long phrases cost no more per guess than short ones and no guess
+ * allocates.</p>
+ *
+ * <p>The letters guessed so far are also kept as a {@link LetterMask}, so players and
+ * games can check whether a letter was already guessed without searching the previous
+ * guesses.</p>
+ *
+ * <p>Each context also carries the random generator for its game, so players that guess at
+ * random draw from a stream that belongs to the game alone and can be replayed from its seed.</p>
+ */
+public class WOFGameContext {
+    private static final int LETTERS = 26;
+
+    private final int playerId;
+    private final String phrase;
+    private final StringBuilder hiddenPhrase;
+    private final StringBuilder previousGuesses;
+    private int wrongAnswers;
+    // Positions of letter c are letterPositions[letterStarts[c - 'a']] up to letterStarts[c - 'a' + 1].
+    private final int[] letterStarts;
+    private final int[] letterPositions;
+    private int revealedLetters;
+    private int guessedLetters;
+    private RandomGenerator random;
+    private Object playerState;
+    private int hiddenCount;
+    private int guesses;
+
+    /**
+     * Creates the context for a new game.
+     *
+     * @param playerId the ID of the player playing the game
+     * @param phrase the phrase to be guessed
+     * @param wrongAnswers the number of wrong answers the player is allowed
+     */
+    public WOFGameContext(int playerId, CharSequence phrase, int wrongAnswers) {
+        this(playerId, phrase, wrongAnswers, null);
+    }
+
+    /**
+     * Creates the context for a new game that draws its random choices from the given generator.
+     *
+     * @param playerId the ID of the player playing the game
+     * @param phrase the phrase to be guessed
+     * @param wrongAnswers the number of wrong answers the player is allowed
+     * @param random the generator for this game, or null to create an unseeded one when first needed
+     */
+    public WOFGameContext(int playerId, CharSequence phrase, int wrongAnswers, RandomGenerator random) {
+        this.random = random;
+        this.playerId = playerId;
+        this.phrase = phrase.toString();
+        this.hiddenPhrase = hide(phrase);
+        this.previousGuesses = new StringBuilder();
+        this.wrongAnswers = wrongAnswers;
+        this.letterStarts = new int[LETTERS + 1];
+
+        int length = this.phrase.length();
+        for (int i = 0; i < length; i++) {
+            char c = this.phrase.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                letterStarts[c - 'a' + 1]++;
+            }
+            if (c != hiddenPhrase.charAt(i)) {
+                hiddenCount++;
+            }
+        }
+        for (int letter = 0; letter < LETTERS; letter++) {
+            letterStarts[letter + 1] += letterStarts[letter];
+        }
+        this.letterPositions = new int[letterStarts[LETTERS]];
+        int[] next = new int[LETTERS];
+        for (int i = 0; i < length; i++) {
+            char c = this.phrase.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                int letter = c - 'a';
+                letterPositions[letterStarts[letter] + next[letter]++] = i;
+            }
+        }
+    }
+
+    /**
+     * Generates a hidden version of the phrase, replacing each character with an asterisk, except for spaces.
+     *
+     * @param phrase the original phrase to conceal
+     * @return the concealed phrase as a StringBuilder
+     */
+    public static StringBuilder hide(CharSequence phrase) {
+        StringBuilder hiddenPhrase = new StringBuilder(phrase.length());
+        for (int i = 0; i < phrase.length(); i++) {
+            hiddenPhrase.append(phrase.charAt(i) == ' ' ? ' ' : '*');
+        }
+        return hiddenPhrase;
+    }
+
+    /**
+     * Plays this game to the end with the given player, reporting every step to the observer.
+     *
+     * @param player the AI player making the guesses
+     * @param observer the observer that receives game events
+     * @return true if the player won, false if the player lost
+     */
+    public boolean playWith(WOFInterface player, GameObserver observer) {
+        LogHistogram decisions = GameMetrics.ENABLED ? GameMetrics.get().decisionLatency(player) : null;
+        observer.gameStarted(playerId, hiddenPhrase);
+        while (true) {
+            observer.guessRequested(playerId, previousGuesses, hiddenPhrase);
+            String guess;
+            if (decisions != null) {
+                long start = System.nanoTime();
+                guess = player.getGuess(this);
+                decisions.record(System.nanoTime() - start);
+            } else {
+                guess = player.getGuess(this);
+            }
+            guesses++;
+            observer.guessMade(playerId, guess);
+            processGuess(guess, observer);
+
+            boolean won = checkWin();
+            if (won || wrongAnswers <= 0) {
+                if (GameMetrics.ENABLED) {
+                    GameMetrics.get().gamePlayed(guesses);
+                }
+                if (won) {
+                    observer.gameWon(playerId);
+                } else {
+                    observer.gameLost(playerId);
+                }
+                return won;
+            }
+        }
+    }
+
+    /**
+     * Processes a guess, revealing the letter in the hidden phrase if it is present or
+     * decrementing the wrong answers left if not.
+     *
+     * @param guess the guessed letter as a string
+     * @param observer the observer that is told whether the letter was revealed or missed
+     * @return true if the letter is in the phrase, false otherwise
+     */
+    public boolean processGuess(String guess, GameObserver observer) {
+        return processGuess(guess.charAt(0), observer);
+    }
+
+    /**
+     * Processes a guessed letter, revealing it in the hidden phrase if it is present or
+     * decrementing the wrong answers left if not.
+     *
+     * @param letter the guessed letter
+     * @param observer the observer that is told whether the letter was revealed or missed
+     * @return true if the letter is in the phrase, false otherwise
+     */
+    public boolean processGuess(char letter, GameObserver observer) {
+        boolean found;
+        if (letter >= 'a' && letter <= 'z') {
+            int index = letter - 'a';
+            int start = letterStarts[index];
+            int end = letterStarts[index + 1];
+            found = end > start;
+            int bit = 1 << index;
+            guessedLetters |= bit;
+            if (found && (revealedLetters & bit) == 0) {
+                revealedLetters |= bit;
+                for (int i = start; i < end; i++) {
+                    hiddenPhrase.setCharAt(letterPositions[i], letter);
+                }
+                hiddenCount -= end - start;
+            }
+        } else {
+            found = revealOther(letter);
+        }
+        if (found) {
+            observer.letterRevealed(playerId, letter, hiddenPhrase);
+        } else {
+            wrongAnswers--;
+            observer.letterMissed(playerId, letter, wrongAnswers);
+        }
+        return found;
+    }
+
+    // Letters outside 'a' to 'z' are rare enough to be found with a plain scan.
+    private boolean revealOther(char letter) {
+        boolean found = false;
+        for (int i = 0; i < phrase.length(); i++) {
+            if (phrase.charAt(i) == letter) {
+                found = true;
+                if (hiddenPhrase.charAt(i) != letter) {
+                    hiddenPhrase.setCharAt(i, letter);
+                    hiddenCount--;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Checks whether the whole phrase has been revealed.
+     *
+     * @return true if the player has won, false otherwise
+     */
+    public boolean checkWin() {
+        return hiddenCount == 0;
+    }
+
+    /**
+     * Calculates the score for the game based on whether the player won.
+     *
+     * @param won true if the player won, false if the player lost
+     * @return the calculated score as an integer
+     */
+    public int calculateScore(boolean won) {
+        return won ? wrongAnswers * 10 : 0;
+    }
+
+    /**
+     * @return the number of guesses made by {@link #playWith} so far
+     */
+    public int getGuesses() {
+        return guesses;
+    }
+
+    /**
+     * @return the ID of the player playing this game
+     */
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * @return the phrase being guessed
+     */
+    public String getPhrase() {
+        return phrase;
+    }
+
+    /**
+     * Checks whether a letter has already been guessed in this game. A guess counts once
+     * it has been processed.
+     *
+     * @param letter the letter to check
+     * @return true if the letter was guessed before
+     */
+    public boolean isGuessed(char letter) {
+        int bit = LetterMask.bit(letter);
+        if (bit != 0) {
+            return (guessedLetters & bit) != 0;
+        }
+        // Letters outside 'a' to 'z' have no bit and are looked up in the guesses themselves.
+        return previousGuesses.indexOf(String.valueOf(letter)) != -1;
+    }
+
+    /**
+     * @return the letters 'a' to 'z' guessed so far, as a {@link LetterMask}
+     */
+    public int getGuessedLetters() {
+        return guessedLetters;
+    }
+
+    /**
+     * @return the random generator of this game, which only the thread playing the game may use
+     */
+    public RandomGenerator getRandom() {
+        if (random == null) {
+            random = new SplittableRandom();
+        }
+        return random;
+    }
+
+    /**
+     * @return the state the player keeps for this game, or null if it has not stored any
+     */
+    public Object getPlayerState() {
+        return playerState;
+    }
+
+    /**
+     * Stores state that the player needs from one guess to the next in this game. Players
+     * are shared by many games, so per-game bookkeeping belongs here rather than in the player.
+     *
+     * @param playerState the player's state for this game
+     */
+    public void setPlayerState(Object playerState) {
+        this.playerState = playerState;
+    }
+
+    /**
+     * @return the hidden phrase with every correctly guessed letter revealed
+     */
+    public StringBuilder getHiddenPhrase() {
+        return hiddenPhrase;
+    }
+
+    /**
+     * @return the letters guessed so far, in the order they were guessed
+     */
+    public StringBuilder getPreviousGuesses() {
+        return previousGuesses;
+    }
+
+    /**
+     * @return the number of wrong answers the player has left
+     */
+    public int getWrongAnswers() {
+        return wrongAnswers;
+    }
+
+    @Override
+    public String toString() {
+        return "WOFGameContext{" +
+                "playerId=" + playerId +
+                ", phrase=" + phrase +
+                ", hiddenPhrase=" + hiddenPhrase +
+                ", previousGuesses=" + previousGuesses +
+                ", wrongAnswers=" + wrongAnswers +
+                '}';
+    }
+}
@@ -5,27 +5,46 @@ import java.util.Random;
 
 public class WOFICommon implements WOFInterface{
     public int playerId;
+    private final AllGameRecord allGameRecords;
     private List<String> commonLetters;
+    private final String guessOrder;
+    private final String fingerprint;
 
-    public WOFICommon() {
-        AllGameRecord.generateNewPlayerId();
-        this.playerId = AllGameRecord.getPlayerId();
+    public WOFICommon(AllGameRecord allGameRecords) {
+        this.allGameRecords = allGameRecords;
+        this.playerId = allGameRecords.generateNewPlayerId();
         this.commonLetters = new ArrayList<>(Arrays.asList("e", "a", "r", "i", "o", "t", "n", "s", "l", "c", "u", "d", "p", "m", "h", "g", "b", "f", "y", "w", "k", "v", "x", "z", "j", "q"));
+        this.guessOrder = String.join("", commonLetters);
+        this.fingerprint = getClass().getName() + ":" + guessOrder;
     }
 
     @Override
     public String getGuess(StringBuilder previousGuesses) {
         while (true) {
-            System.out.println("You have already guessed these letters: " + previousGuesses);
-            System.out.println(WOFAI.getHiddenPhrase());
-            System.out.println("Guess a Letter");
-            String letter = commonLetters.get(WOFAI.index);
-            WOFAI.index++;
+            // Each guess appends one letter, so the number of previous guesses is the
+            // position in the list; this keeps the player free of per-game state.
+            String letter = commonLetters.get(previousGuesses.length());
             previousGuesses.append(letter);
             return letter;
         }
     }
 
+    // The guesses follow a fixed list, so the same phrase always ends the same way.
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    @Override
+    public String fingerprint() {
+        return fingerprint;
+    }
+
+    @Override
+    public String guessOrder() {
+        return guessOrder;
+    }
+
     @Override
     public int playerId() {
         return this.playerId;
@@ -33,7 +52,7 @@ public class WOFICommon implements WOFInterface{
 
     @Override
     public void reset() {
-        playerId = AllGameRecord.generateNewPlayerId();
+        playerId = allGameRecords.generateNewPlayerId();
     }
 }
 
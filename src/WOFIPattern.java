@@ -0,0 +1,218 @@
+import java.util.Objects;
+
+/**
+ * The WOFIPattern class implements the WOFInterface for a strategy that reads the hidden
+ * phrase. It keeps the phrases of the corpus that still match what has been revealed and
+ * guesses the unguessed letter that the most of those phrases contain.
+ *
+ * <p>The candidates of a game start as the phrases of a {@link PhrasePatternIndex} with the
+ * same word lengths as the hidden phrase. After each guess they are narrowed down by that
+ * guess alone: a missed letter drops every candidate containing it, and a revealed letter
+ * keeps only the candidates that have it in exactly the revealed positions. The candidates
+ * live in the game's {@link WOFGameContext}, so one player can play many games at once.</p>
+ *
+ * <p>If no phrase of the corpus matches the game, the player falls back to guessing the
+ * letters in order of how common they are in English.</p>
+ */
+public class WOFIPattern implements WOFInterface {
+    /** Letters in order of how common they are, used to break ties and when nothing matches. */
+    private static final String COMMON_LETTERS = "etaoinshrdlcumwfgypbvkjxqz";
+
+    /** The unique player ID for this instance. */
+    private int playerId;
+    /** The league this player belongs to, which hands out its player IDs. */
+    private final AllGameRecord allGameRecords;
+    private final PhrasePatternIndex index;
+
+    /**
+     * Constructor for WOFIPattern that indexes the given corpus.
+     *
+     * @param allGameRecords the league that hands out this player's IDs
+     * @param corpus the phrases the player expects to be asked
+     */
+    public WOFIPattern(AllGameRecord allGameRecords, PhraseCorpus corpus) {
+        this(allGameRecords, PhrasePatternIndex.of(corpus));
+    }
+
+    /**
+     * Constructor for WOFIPattern that uses an index that has already been built, so
+     * several players can share it.
+     *
+     * @param allGameRecords the league that hands out this player's IDs
+     * @param index the index of the phrases the player expects to be asked
+     */
+    public WOFIPattern(AllGameRecord allGameRecords, PhrasePatternIndex index) {
+        this.allGameRecords = allGameRecords;
+        this.playerId = allGameRecords.generateNewPlayerId();
+        this.index = index;
+    }
+
+    /**
+     * Without the hidden phrase there is nothing to match, so this guesses the most common
+     * letter that has not been guessed yet.
+     *
+     * @param previousGuesses a StringBuilder containing letters that have already been guessed
+     * @return the next guessed letter as a String
+     */
+    @Override
+    public String getGuess(StringBuilder previousGuesses) {
+        return guess(commonLetter(LetterMask.of(previousGuesses)), previousGuesses);
+    }
+
+    /**
+     * Narrows the game's candidates down by the guesses made since the last call and
+     * guesses the unguessed letter found in the most candidates.
+     *
+     * @param game the state of the game being played
+     * @return the next guessed letter as a String
+     */
+    @Override
+    public String getGuess(WOFGameContext game) {
+        Candidates candidates;
+        if (game.getPlayerState() instanceof Candidates state) {
+            candidates = state;
+        } else {
+            candidates = new Candidates(index.group(game.getHiddenPhrase()));
+            game.setPlayerState(candidates);
+        }
+        int guessed = game.getGuessedLetters();
+        candidates.narrow(guessed, game.getHiddenPhrase());
+        char letter = candidates.bestLetter(guessed);
+        return guess(letter != 0 ? letter : commonLetter(guessed), game.getPreviousGuesses());
+    }
+
+    private static String guess(char letter, StringBuilder previousGuesses) {
+        previousGuesses.append(letter);
+        return Character.toString(letter);
+    }
+
+    private static char commonLetter(int guessed) {
+        for (int i = 0; i < COMMON_LETTERS.length(); i++) {
+            char letter = COMMON_LETTERS.charAt(i);
+            if (!LetterMask.contains(guessed, letter)) {
+                return letter;
+            }
+        }
+        throw new IllegalStateException("every letter has already been guessed");
+    }
+
+    /**
+     * Retrieves the player ID for this instance.
+     *
+     * @return the unique player ID
+     */
+    @Override
+    public int playerId() {
+        return this.playerId;
+    }
+
+    /**
+     * Resets the player ID by generating a new unique ID.
+     */
+    @Override
+    public void reset() {
+        playerId = allGameRecords.generateNewPlayerId();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof WOFIPattern that)) return false;
+        return playerId == that.playerId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(playerId);
+    }
+
+    @Override
+    public String toString() {
+        return "WOFIPattern{" +
+                "playerId=" + playerId +
+                ", index=" + index +
+                '}';
+    }
+
+    /**
+     * The phrases of one game that still match its hidden phrase, as numbers within the
+     * game's group of the index.
+     */
+    private static final class Candidates {
+        private final PhrasePatternIndex.Group group;
+        // Null until the first guess narrows the group, which until then stands for all its phrases.
+        private int[] phrases;
+        private int size;
+        // The letters already used to narrow the candidates.
+        private int applied;
+
+        Candidates(PhrasePatternIndex.Group group) {
+            this.group = group;
+            this.size = group != null ? group.size : 0;
+        }
+
+        void narrow(int guessed, CharSequence hiddenPhrase) {
+            for (int fresh = guessed & ~applied; fresh != 0 && size > 0; fresh &= fresh - 1) {
+                int bit = fresh & -fresh;
+                char letter = (char) ('a' + Integer.numberOfTrailingZeros(bit));
+                boolean revealed = indexOf(hiddenPhrase, letter) != -1;
+                if (phrases == null) {
+                    phrases = new int[size];
+                    for (int i = 0; i < size; i++) {
+                        phrases[i] = i;
+                    }
+                }
+                int kept = 0;
+                for (int i = 0; i < size; i++) {
+                    int phrase = phrases[i];
+                    boolean contains = (group.letterMasks[phrase] & bit) != 0;
+                    if (revealed ? contains && group.matches(phrase, letter, hiddenPhrase) : !contains) {
+                        phrases[kept++] = phrase;
+                    }
+                }
+                size = kept;
+            }
+            applied = guessed;
+        }
+
+        /**
+         * @return the unguessed letter contained in the most candidates, or 0 if no candidate has one
+         */
+        char bestLetter(int guessed) {
+            if (size == 0) {
+                return 0;
+            }
+            int[] counts;
+            if (phrases == null) {
+                counts = group.letterCounts;
+            } else {
+                counts = new int[26];
+                for (int i = 0; i < size; i++) {
+                    for (int rest = group.letterMasks[phrases[i]] & ~guessed; rest != 0; rest &= rest - 1) {
+                        counts[Integer.numberOfTrailingZeros(rest)]++;
+                    }
+                }
+            }
+            char best = 0;
+            int bestCount = 0;
+            for (int i = 0; i < COMMON_LETTERS.length(); i++) {
+                char letter = COMMON_LETTERS.charAt(i);
+                int count = counts[letter - 'a'];
+                if (count > bestCount && !LetterMask.contains(guessed, letter)) {
+                    best = letter;
+                    bestCount = count;
+                }
+            }
+            return best;
+        }
+
+        private static int indexOf(CharSequence text, char letter) {
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) == letter) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
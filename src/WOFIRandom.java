@@ -1,16 +1,30 @@
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
 
 /**
  * The WOFIRandom class implements the WOFInterface for a random guessing
  * strategy in a Wheel of Fortune-style game. This class generates random
  * guesses and maintains a unique player ID for each instance.
  *
- * <p>This class keeps track of previously guessed letters to avoid
- * duplicate guesses and resets the player ID when required.</p>
+ * <p>Each guess is drawn uniformly from the letters that have not been
+ * guessed yet, in a single draw, so late guesses cost no more than early
+ * ones. When it plays through a {@link WOFGameContext}, it draws from the
+ * game's own generator, so seeded games are reproducible. Otherwise every
+ * player has its own generator; a player can be used by several games on
+ * different threads at once, so each thread draws from its own generator
+ * split off the player's.</p>
  */
 public class WOFIRandom implements WOFInterface {
+    /** Numbers the players created in this run, which keys each player's generator. */
+    private static final AtomicInteger PLAYERS = new AtomicInteger();
     /** The unique player ID for this instance. */
     private int playerId;
+    /** The league this player belongs to, which hands out its player IDs. */
+    private final AllGameRecord allGameRecords;
+    /** The player's generator, which the per-thread generators are split from. */
+    private final SplittableRandom random;
+    private final ThreadLocal<RandomGenerator> threadRandom = ThreadLocal.withInitial(this::splitRandom);
 
     @Override
     public boolean equals(Object o) {
@@ -34,38 +48,67 @@ public class WOFIRandom implements WOFInterface {
     /**
      * Constructor for WOFIRandom. It generates a new unique player ID by
      * calling AllGameRecord and assigns it to this instance.
+     *
+     * @param allGameRecords the league that hands out this player's IDs
      */
-    public WOFIRandom(){
-        AllGameRecord.generateNewPlayerId();
-        this.playerId = AllGameRecord.getPlayerId();
+    public WOFIRandom(AllGameRecord allGameRecords){
+        this(allGameRecords, GameRandom.defaults());
     }
 
     /**
-     * Generates a random letter that has not been guessed before. Displays
-     * the list of previous guesses and the hidden phrase, then selects a new
-     * letter randomly.
+     * Constructor for WOFIRandom that derives this player's generator from
+     * the given source of randomness, by the number of WOFIRandom players
+     * created before it in this run.
+     *
+     * @param allGameRecords the league that hands out this player's IDs
+     * @param random the source of randomness the player's generator is split from
+     */
+    public WOFIRandom(AllGameRecord allGameRecords, GameRandom random){
+        this.allGameRecords = allGameRecords;
+        this.playerId = allGameRecords.generateNewPlayerId();
+        this.random = random.split(PLAYERS.incrementAndGet()).generator();
+    }
+
+    /**
+     * Generates a random letter that has not been guessed before. The game
+     * reports the previous guesses and the hidden phrase to its observer, so
+     * this method only selects a new letter randomly.
      *
      * @param previousGuesses a StringBuilder containing letters that have already been guessed
      * @return a randomly generated letter as a String that has not been guessed before
      */
     @Override
     public String getGuess(StringBuilder previousGuesses) {
-        while (true) {
-            System.out.println("You have already guessed these letters: " + previousGuesses);
-            System.out.println(WOFAI.getHiddenPhrase());
-            System.out.println("Guess a Letter");
-
-            Random random = new Random();
-            char randomLowercaseLetter = (char) (random.nextInt(26) + 97); // Generates a random lowercase letter
-            String letter = Character.toString(randomLowercaseLetter);
-
-            if (previousGuesses.indexOf(letter) != -1) {
-                System.out.println("You already guessed that letter");
-                System.out.println();
-                continue;
-            }
-            previousGuesses.append(letter);
-            return letter;
+        return guess(LetterMask.of(previousGuesses), previousGuesses, threadRandom.get());
+    }
+
+    /**
+     * Generates a random letter that has not been guessed in the given game,
+     * reading the guessed letters from the game's letter mask and drawing
+     * from the game's generator.
+     *
+     * @param game the state of the game being played
+     * @return a randomly generated letter as a String that has not been guessed before
+     */
+    @Override
+    public String getGuess(WOFGameContext game) {
+        return guess(game.getGuessedLetters(), game.getPreviousGuesses(), game.getRandom());
+    }
+
+    private String guess(int guessedLetters, StringBuilder previousGuesses, RandomGenerator random) {
+        int remaining = LetterMask.remaining(guessedLetters);
+        int count = Integer.bitCount(remaining);
+        if (count == 0) {
+            throw new IllegalStateException("every letter has already been guessed");
+        }
+        char letter = LetterMask.nth(remaining, random.nextInt(count));
+        previousGuesses.append(letter);
+        return Character.toString(letter);
+    }
+
+    private RandomGenerator splitRandom() {
+        synchronized (random) {
+            return random.split();
         }
     }
 
@@ -84,7 +127,7 @@ public class WOFIRandom implements WOFInterface {
      */
     @Override
     public void reset() {
-        playerId = AllGameRecord.generateNewPlayerId();
+        playerId = allGameRecords.generateNewPlayerId();
     }
 }
 
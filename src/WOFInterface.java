@@ -17,6 +17,53 @@ public interface WOFInterface {
      */
     String getGuess(StringBuilder previousGuesses);
 
+    /**
+     * Retrieves the next guess from the player for the given game. Players that only need
+     * the previous guesses can rely on this default, which delegates to
+     * {@link #getGuess(StringBuilder)}; players that look at the hidden phrase should
+     * override it and read the game state from the context rather than from a shared field.
+     *
+     * @param game the state of the game being played
+     * @return the next guessed letter as a String
+     */
+    default String getGuess(WOFGameContext game) {
+        return getGuess(game.getPreviousGuesses());
+    }
+
+    /**
+     * Tells whether this player always makes the same guesses in the same game, so that the
+     * outcome of a game depends only on the phrase and the wrong answers allowed. The outcomes
+     * of deterministic players can be remembered by an {@link OutcomeCache} instead of replayed.
+     *
+     * @return true if the player's guesses depend on nothing but the game; false by default
+     */
+    default boolean isDeterministic() {
+        return false;
+    }
+
+    /**
+     * Identifies the strategy of a deterministic player. Players that would make the same
+     * guesses in every game must return equal fingerprints, and players that might not must
+     * return different ones. The default is the class name, which suits players with no
+     * settings of their own.
+     *
+     * @return the fingerprint of the player's strategy
+     */
+    default String fingerprint() {
+        return getClass().getName();
+    }
+
+    /**
+     * Returns the letters this player guesses, in order, if it always guesses the same letters
+     * in the same order whatever the game. Such a player's score for a phrase can be worked out
+     * by a {@link FixedOrderScorer} without playing the game.
+     *
+     * @return the guess order, or null if the player's guesses depend on the game; null by default
+     */
+    default String guessOrder() {
+        return null;
+    }
+
     /**
      * Retrieves the unique ID associated with this player.
      *
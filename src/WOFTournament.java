@@ -0,0 +1,301 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The WOFTournament class plays every AI player against every phrase, spreading the games
+ * across the threads of a ForkJoinPool.
+ *
+ * <p>Each game runs in its own {@link WOFGameContext}, so games never share state and the
+ * work splits evenly over all available cores. Every worker thread writes its results
+ * straight into the AllGameRecord, so the order of the records depends on scheduling, but
+ * the score each player gets for each phrase does not.</p>
+ *
+ * <p>Every game draws its random choices from a generator derived from the tournament's
+ * {@link GameRandom} by player position and phrase position, so a tournament run with the
+ * same seed, players and phrases gives every game the same result, however the games are
+ * spread over the threads.</p>
+ *
+ * <p>When the observer is quiet and metrics are off, players that guess in a fixed order are
+ * scored by a {@link FixedOrderScorer} from the letters of each phrase, which are worked out
+ * once per tournament, instead of playing their games. Otherwise their games are played like
+ * any other, so the observer and the metrics see every guess.</p>
+ *
+ * <p>A tournament can be given an {@link OutcomeCache}, so that a phrase a deterministic
+ * player has already played in an earlier tournament is looked up rather than replayed.</p>
+ */
+public class WOFTournament {
+    /** Games played by a single task before it stops splitting its range. */
+    private static final int GAMES_PER_TASK = 64;
+    /** Wrong answers every player is allowed in each game. */
+    private static final int WRONG_ANSWERS = 10;
+
+    private final AllGameRecord allGameRecords;
+    private final PhraseCorpus phrases;
+    private final GameObserver observer;
+    private final ForkJoinPool pool;
+    private final GameRandom random;
+    private final OutcomeCache outcomes;
+    private int[] phraseMasks;
+
+    /**
+     * Creates a headless tournament that runs on the common ForkJoinPool.
+     *
+     * @param allGameRecords the AllGameRecord instance that stores game records
+     * @param phrases the phrases every player plays
+     */
+    public WOFTournament(AllGameRecord allGameRecords, List<String> phrases) {
+        this(allGameRecords, PhraseCorpus.of(phrases));
+    }
+
+    /**
+     * Creates a headless tournament over a phrase corpus that runs on the common ForkJoinPool.
+     *
+     * @param allGameRecords the AllGameRecord instance that stores game records
+     * @param phrases the corpus whose phrases every player plays
+     */
+    public WOFTournament(AllGameRecord allGameRecords, PhraseCorpus phrases) {
+        this(allGameRecords, phrases, QuietGameObserver.INSTANCE, ForkJoinPool.commonPool(), GameRandom.defaults());
+    }
+
+    /**
+     * Creates a tournament that reports game events to the given observer and runs on the given pool.
+     * The observer is called from several threads at once and must be thread-safe.
+     *
+     * @param allGameRecords the AllGameRecord instance that stores game records
+     * @param phrases the corpus whose phrases every player plays
+     * @param observer the observer that receives game events
+     * @param pool the pool that plays the games
+     */
+    public WOFTournament(AllGameRecord allGameRecords, PhraseCorpus phrases, GameObserver observer, ForkJoinPool pool) {
+        this(allGameRecords, phrases, observer, pool, GameRandom.defaults());
+    }
+
+    /**
+     * Creates a tournament whose games draw their random choices from the given source, so
+     * that the tournament can be replayed from the source's seed.
+     * The observer is called from several threads at once and must be thread-safe.
+     *
+     * @param allGameRecords the AllGameRecord instance that stores game records
+     * @param phrases the corpus whose phrases every player plays
+     * @param observer the observer that receives game events
+     * @param pool the pool that plays the games
+     * @param random the source every game's generator is derived from
+     */
+    public WOFTournament(AllGameRecord allGameRecords, PhraseCorpus phrases, GameObserver observer, ForkJoinPool pool, GameRandom random) {
+        this(allGameRecords, phrases, observer, pool, random, null);
+    }
+
+    /**
+     * Creates a tournament that remembers the outcomes of deterministic players in the given
+     * cache. A single tournament plays every phrase once per player, so the cache only pays
+     * off when it is shared with later tournaments over the same phrases.
+     * The observer is called from several threads at once and must be thread-safe.
+     *
+     * @param allGameRecords the AllGameRecord instance that stores game records
+     * @param phrases the corpus whose phrases every player plays
+     * @param observer the observer that receives game events
+     * @param pool the pool that plays the games
+     * @param random the source every game's generator is derived from
+     * @param outcomes the cache of the outcomes of deterministic players, or null to play every game
+     */
+    public WOFTournament(AllGameRecord allGameRecords, PhraseCorpus phrases, GameObserver observer, ForkJoinPool pool, GameRandom random,
+                         OutcomeCache outcomes) {
+        this.outcomes = outcomes;
+        this.allGameRecords = allGameRecords;
+        this.phrases = phrases;
+        this.observer = observer;
+        this.pool = pool;
+        this.random = random;
+    }
+
+    /**
+     * @return the source of randomness of this tournament, whose seed replays it
+     */
+    public GameRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Plays every phrase once with every player and records the results.
+     *
+     * @param WOFPlayers the list of AI players implementing WOFInterface
+     * @return the AllGameRecord containing all game records
+     */
+    public AllGameRecord run(ArrayList<WOFInterface> WOFPlayers) {
+        WOFInterface[] players = WOFPlayers.toArray(new WOFInterface[0]);
+        FixedOrderScorer[] scorers = new FixedOrderScorer[players.length];
+        for (int i = 0; i < players.length; i++) {
+            scorers[i] = FixedOrderScorer.of(players[i], WRONG_ANSWERS, observer);
+        }
+        int[] masks = null;
+        for (FixedOrderScorer scorer : scorers) {
+            if (scorer != null) {
+                masks = phraseMasks();
+                break;
+            }
+        }
+        pool.invoke(new PlayGames(allGameRecords, players, scorers, masks, 0, (long) players.length * phrases.size()));
+        return allGameRecords;
+    }
+
+    /**
+     * Plays one player's games on a range of the phrases and records them in a new
+     * AllGameRecord of their own rather than this tournament's. Each game gets the same random
+     * choices as in a full run where the player sits at the given position, so a tournament
+     * split into ranges, even over several machines, gives every game the same score as a
+     * single run.
+     *
+     * @param player the AI player
+     * @param playerIndex the position of the player in the full tournament
+     * @param fromPhrase the first phrase to play
+     * @param toPhrase the phrase after the last one to play
+     * @return a new AllGameRecord holding only the games of the range
+     * @throws IndexOutOfBoundsException if the range is not within the corpus
+     */
+    public AllGameRecord runRange(WOFInterface player, int playerIndex, int fromPhrase, int toPhrase) {
+        if (fromPhrase < 0 || fromPhrase > toPhrase || toPhrase > phrases.size()) {
+            throw new IndexOutOfBoundsException("phrases " + fromPhrase + " to " + toPhrase + " of " + phrases.size());
+        }
+        // Only the player's own row of the grid is played, so the other positions stay empty.
+        WOFInterface[] players = new WOFInterface[playerIndex + 1];
+        FixedOrderScorer[] scorers = new FixedOrderScorer[playerIndex + 1];
+        players[playerIndex] = player;
+        scorers[playerIndex] = FixedOrderScorer.of(player, WRONG_ANSWERS, observer);
+        int[] masks = scorers[playerIndex] != null ? phraseMasks() : null;
+        AllGameRecord range = new AllGameRecord();
+        long row = (long) playerIndex * phrases.size();
+        pool.invoke(new PlayGames(range, players, scorers, masks, row + fromPhrase, row + toPhrase));
+        return range;
+    }
+
+    /**
+     * Returns the letters of every phrase, working them out the first time they are needed.
+     *
+     * @return the phrase mask of phrase i at index i
+     */
+    private synchronized int[] phraseMasks() {
+        if (phraseMasks == null) {
+            phraseMasks = FixedOrderScorer.phraseMasks(phrases);
+        }
+        return phraseMasks;
+    }
+
+    /**
+     * Records the score a fixed-order player gets for a phrase, without playing the game. Only
+     * used when nobody watches the games, so no game events are sent.
+     *
+     * @param records the AllGameRecord to record the game in
+     * @param player the AI player
+     * @param scorer the scorer for the player's guess order
+     * @param phraseMask the letters of the phrase
+     */
+    private void scoreGame(AllGameRecord records, WOFInterface player, FixedOrderScorer scorer, int phraseMask) {
+        GameRecord gameRecord = new GameRecord(scorer.score(phraseMask), player.playerId(), GameType.WOF_AI, player.fingerprint());
+        records.add(gameRecord);
+        observer.recordWritten(gameRecord);
+    }
+
+    /**
+     * Plays one game and records its result.
+     *
+     * @param records the AllGameRecord to record the game in
+     * @param player the AI player making the guesses
+     * @param playerIndex the position of the player in the tournament
+     * @param phraseIndex the position of the phrase in the corpus
+     */
+    private void playGame(AllGameRecord records, WOFInterface player, int playerIndex, int phraseIndex) {
+        int playerId = player.playerId();
+        WOFGameContext game = new WOFGameContext(playerId, phrases.phrase(phraseIndex), WRONG_ANSWERS,
+                random.split(playerIndex).split(phraseIndex).generator());
+        int score = outcomes != null ? outcomes.play(game, player, observer) : game.calculateScore(game.playWith(player, observer));
+        GameRecord gameRecord = new GameRecord(score, playerId, GameType.WOF_AI, player.fingerprint());
+        records.add(gameRecord);
+        observer.recordWritten(gameRecord);
+    }
+
+    /**
+     * Plays the games in a range of the players x phrases grid, splitting the range in half
+     * until it is small enough to play on one thread.
+     */
+    private class PlayGames extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final AllGameRecord records;
+        private final WOFInterface[] players;
+        // The scorer of each fixed-order player, null for the others.
+        private final FixedOrderScorer[] scorers;
+        // The letters of each phrase, or null if no player is scored.
+        private final int[] masks;
+        private final long from;
+        private final long to;
+
+        PlayGames(AllGameRecord records, WOFInterface[] players, FixedOrderScorer[] scorers, int[] masks, long from, long to) {
+            this.records = records;
+            this.players = players;
+            this.scorers = scorers;
+            this.masks = masks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                int phraseCount = phrases.size();
+                for (long i = from; i < to; i++) {
+                    int playerIndex = (int) (i / phraseCount);
+                    int phraseIndex = (int) (i % phraseCount);
+                    if (scorers[playerIndex] != null) {
+                        scoreGame(records, players[playerIndex], scorers[playerIndex], masks[phraseIndex]);
+                    } else {
+                        playGame(records, players[playerIndex], playerIndex, phraseIndex);
+                    }
+                }
+                return;
+            }
+            long middle = (from + to) >>> 1;
+            invokeAll(new PlayGames(records, players, scorers, masks, from, middle),
+                    new PlayGames(records, players, scorers, masks, middle, to));
+        }
+    }
+
+    /**
+     * Runs a headless tournament of the built-in players over "phrases.txt" (or its compiled "phrases.wofc") and prints the averages.
+     *
+     * @param args command-line arguments (not used)
+     * @throws IOException if "phrases.txt" cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        AllGameRecord allGames = new AllGameRecord();
+        if (GameMetrics.ENABLED) {
+            GameMetrics.get().watchRecordStore(allGames::size);
+        }
+        GameRandom random = GameRandom.defaults();
+        PhraseCorpus phrases = SharedPhraseCorpus.of(PhraseCorpus.defaultPath()).snapshot();
+        ArrayList<WOFInterface> wofIArray = new ArrayList<>();
+        wofIArray.add(new WOFIRandom(allGames, random));
+        wofIArray.add(new WOFICommon(allGames));
+        wofIArray.add(new WOFIVowelFirst(allGames));
+        wofIArray.add(new WOFIPattern(allGames, phrases));
+
+        long start = System.nanoTime();
+        new WOFTournament(allGames, phrases, QuietGameObserver.INSTANCE, ForkJoinPool.commonPool(), random).run(wofIArray);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Played " + allGames.size() + " games in " + elapsedMillis + " ms");
+        System.out.println("Replay with -D" + GameRandom.SEED_PROPERTY + "=" + random.seed());
+        System.out.println("The average of all scores is " + allGames.average());
+        for (WOFInterface player : wofIArray) {
+            System.out.println("The average score for Player " + player.playerId() + " is " + allGames.playerAverage(player.playerId()));
+        }
+        for (WOFInterface player : wofIArray) {
+            System.out.println("Player " + player.playerId() + " scores: " + allGames.playerHistogram(player.playerId()));
+        }
+        if (GameMetrics.ENABLED) {
+            System.out.println(GameMetrics.get());
+        }
+    }
+}
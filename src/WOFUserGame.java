@@ -1,7 +1,6 @@
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The WOFUserGame class represents a user-interactive version of a Wheel of Fortune-style game.
@@ -12,14 +11,15 @@ import java.util.*;
  * processing guesses, and storing game records for each playthrough.</p>
  */
 public class WOFUserGame extends WOFAbstractClass {
-    private StringBuilder phrase;
-    private StringBuilder hiddenPhrase;
-    private int wrongAnswers;
+    // Numbers the user games of this run, which keys the order their phrases are drawn in.
+    private static final AtomicInteger SESSIONS = new AtomicInteger();
+    private WOFGameContext game;
     private static Scanner scanner = new Scanner(System.in);
-    private StringBuilder previousGuesses;
-    private List<String> phrases;
+    private PhraseCorpus corpus;
+    private PhraseCursor phrases;
     private AllGameRecord allGameRecords;
     private int playerId;
+    private GameObserver observer;
 
     /**
      * Constructor for WOFUserGame that initializes the game with a new player ID,
@@ -28,13 +28,23 @@ public class WOFUserGame extends WOFAbstractClass {
      * @param allGameRecords the AllGameRecord instance that stores game records
      */
     public WOFUserGame(AllGameRecord allGameRecords) {
-        this.playerId = playerId(); // Retrieves player ID
+        this(allGameRecords, new ConsoleGameObserver());
+    }
+
+    /**
+     * Constructor for WOFUserGame that reports game events to the given observer.
+     * Prompts that ask the user for input are always printed to the console.
+     *
+     * @param allGameRecords the AllGameRecord instance that stores game records
+     * @param observer the observer that receives game events
+     */
+    public WOFUserGame(AllGameRecord allGameRecords, GameObserver observer) {
+        this.observer = observer;
         this.allGameRecords = allGameRecords;
-        this.phrases = readPhrases();
-        this.phrase = randomPhrase();
-        this.hiddenPhrase = generateHiddenPhrase(phrase);
-        this.wrongAnswers = 5;
-        this.previousGuesses = new StringBuilder("");
+        this.playerId = playerId(); // Retrieves player ID
+        this.corpus = readCorpus();
+        this.phrases = corpus.cursor(GameRandom.defaults().split(SESSIONS.incrementAndGet()).generator());
+        reset();
     }
 
     /**
@@ -43,7 +53,7 @@ public class WOFUserGame extends WOFAbstractClass {
      * @return the player ID as an integer
      */
     public int playerId() {
-        return AllGameRecord.getPlayerId();
+        return allGameRecords.getPlayerId();
     }
 
     /**
@@ -51,10 +61,7 @@ public class WOFUserGame extends WOFAbstractClass {
      * Initializes a new phrase, resets wrong answers, and clears previous guesses.
      */
     public void reset() {
-        this.phrase = randomPhrase();
-        this.hiddenPhrase = generateHiddenPhrase(phrase);
-        this.wrongAnswers = 5;
-        this.previousGuesses.setLength(0); // Clears previous guesses
+        this.game = new WOFGameContext(playerId, randomPhrase(), 5);
     }
 
     /**
@@ -63,18 +70,19 @@ public class WOFUserGame extends WOFAbstractClass {
      */
     @Override
     public void play() {
+        observer.gameStarted(playerId, game.getHiddenPhrase());
         while (true) {
-            System.out.println(hiddenPhrase.toString());
-            String guess = this.getGuess(previousGuesses);
-            System.out.println("Player guessed " + guess);
+            observer.guessRequested(playerId, game.getPreviousGuesses(), game.getHiddenPhrase());
+            String guess = this.getGuess(game.getPreviousGuesses());
+            observer.guessMade(playerId, guess);
             processGuess(guess);
 
             if (checkWin()) {
-                System.out.println("You won!");
+                observer.gameWon(playerId);
                 recordGame(true);
                 break;
-            } else if (wrongAnswers <= 0) {
-                System.out.println("You lost!");
+            } else if (game.getWrongAnswers() <= 0) {
+                observer.gameLost(playerId);
                 recordGame(false);
                 break;
             }
@@ -87,10 +95,10 @@ public class WOFUserGame extends WOFAbstractClass {
      * @param won true if the player won, false if the player lost
      */
     private void recordGame(boolean won) {
-        int score = calculateScore(won);
-        GameRecord gameRecord = new GameRecord(score, playerId);
+        int score = game.calculateScore(won);
+        GameRecord gameRecord = new GameRecord(score, playerId, GameType.WOF_USER, GameRecord.HUMAN);
         allGameRecords.add(gameRecord);
-        System.out.println("Game recorded with score: " + score);
+        observer.recordWritten(gameRecord);
     }
 
     /**
@@ -106,8 +114,8 @@ public class WOFUserGame extends WOFAbstractClass {
                 System.out.print("Continue as the same player? (y/n): ");
                 String response = scanner.nextLine().trim().toLowerCase();
                 if (response.equals("n")) {
-                    this.playerId = AllGameRecord.generateNewPlayerId();
-                    System.out.println("New player ID assigned: " + this.playerId);
+                    this.playerId = allGameRecords.generateNewPlayerId();
+                    observer.message("New player ID assigned: " + this.playerId);
                 }
                 reset();
             } else {
@@ -130,37 +138,41 @@ public class WOFUserGame extends WOFAbstractClass {
     }
 
     /**
-     * Selects a random phrase from the list of available phrases and removes it from the list.
+     * Draws a random phrase that has not been played yet.
      *
      * @return the randomly selected phrase as a StringBuilder
      */
     @Override
     public StringBuilder randomPhrase() {
-        if (phrases.isEmpty()) {
-            System.out.println("No more phrases available!");
+        if (!phrases.hasNext()) {
+            observer.message("No more phrases available!");
             return null;
         }
-
-        Random random = new Random();
-        int index = random.nextInt(phrases.size());
-        String selectedPhrase = phrases.remove(index); // Select and remove the phrase
-        return new StringBuilder(selectedPhrase);
+        return new StringBuilder(phrases.next());
     }
 
     /**
-     * Reads phrases from an external file ("phrases.txt") to use in the game.
+     * Reads phrases from an external file ("phrases.txt", or "phrases.wofc" once compiled) to use in the game.
      *
-     * @return a List of phrases as strings
+     * @return a List of phrases as strings, decoded as they are read
      */
     @Override
     public List<String> readPhrases() {
-        List<String> phraseList = new ArrayList<>();
+        return readCorpus().asList();
+    }
+
+    /**
+     * Returns the current snapshot of the phrase file ({@link PhraseCorpus#defaultPath()}), which is opened once and shared by every game.
+     *
+     * @return the corpus, or an empty corpus if the file cannot be read
+     */
+    private PhraseCorpus readCorpus() {
         try {
-            phraseList = Files.readAllLines(Paths.get("phrases.txt"));
+            return SharedPhraseCorpus.of(PhraseCorpus.defaultPath()).snapshot();
         } catch (IOException e) {
-            System.out.println(e);
+            observer.message(e.toString());
+            return PhraseCorpus.of(List.of());
         }
-        return phraseList;
     }
 
     /**
@@ -171,11 +183,7 @@ public class WOFUserGame extends WOFAbstractClass {
      */
     @Override
     public StringBuilder generateHiddenPhrase(StringBuilder phrase) {
-        StringBuilder hiddenPhrase = new StringBuilder();
-        for (int i = 0; i < phrase.length(); i++) {
-            hiddenPhrase.append(phrase.charAt(i) == ' ' ? ' ' : "*");
-        }
-        return hiddenPhrase;
+        return WOFGameContext.hide(phrase);
     }
 
     /**
@@ -185,18 +193,7 @@ public class WOFUserGame extends WOFAbstractClass {
      * @param guess the guessed letter as a string
      */
     public void processGuess(String guess) {
-        String checkLetter = guess.substring(0, 1);
-
-        if (phrase.indexOf(checkLetter) != -1) {
-            for (int i = 0; i < phrase.length(); i++) {
-                if (checkLetter.charAt(0) == phrase.charAt(i)) {
-                    hiddenPhrase.replace(i, i + 1, checkLetter);
-                }
-            }
-        } else {
-            wrongAnswers--;
-            System.out.println("Nope. Wrong Answers left: " + wrongAnswers);
-        }
+        game.processGuess(guess, observer);
     }
 
     /**
@@ -207,12 +204,13 @@ public class WOFUserGame extends WOFAbstractClass {
      */
     @Override
     public String getGuess(StringBuilder previousGuesses) {
+        // The first prompt comes from the observer's guessRequested.
         while (true) {
-            System.out.println("Guess a Letter");
             String guessString = scanner.nextLine().toLowerCase();
 
-            if (guessString.length() != 1 || !Character.isLetter(guessString.charAt(0)) || previousGuesses.indexOf(guessString) != -1) {
+            if (guessString.length() != 1 || !Character.isLetter(guessString.charAt(0)) || game.isGuessed(guessString.charAt(0))) {
                 System.out.println("Invalid guess. Please enter a single unused letter.");
+                System.out.println("Guess a Letter");
                 continue;
             }
 
@@ -221,23 +219,13 @@ public class WOFUserGame extends WOFAbstractClass {
         }
     }
 
-    /**
-     * Calculates the score based on the game outcome and remaining wrong answers.
-     *
-     * @param won true if the player won, false if the player lost
-     * @return the calculated score as an integer
-     */
-    private int calculateScore(boolean won) {
-        return won ? wrongAnswers * 10 : 0;
-    }
-
     /**
      * Checks whether the player has successfully guessed the phrase.
      *
      * @return true if the player has won, false otherwise
      */
     public Boolean checkWin() {
-        return phrase.toString().equals(hiddenPhrase.toString());
+        return game.checkWin();
     }
 
     @Override
@@ -250,10 +238,7 @@ public class WOFUserGame extends WOFAbstractClass {
     @Override
     public String toString() {
         return "WOFUserGame{" +
-                "phrase=" + phrase +
-                ", hiddenPhrase=" + hiddenPhrase +
-                ", wrongAnswers=" + wrongAnswers +
-                ", previousGuesses=" + previousGuesses +
+                "game=" + game +
                 ", phrases=" + phrases +
                 ", allGameRecords=" + allGameRecords +
                 ", playerId=" + playerId +
@@ -270,11 +255,11 @@ public class WOFUserGame extends WOFAbstractClass {
         game.playAll();
 
         System.out.println("All games played:");
-        for (GameRecord record : allGames.listOfGameRecords) {
+        for (GameRecord record : allGames.getGameRecords()) {
             System.out.println("Player ID: " + record.playerId + ", Score: " + record.score);
         }
-        System.out.println("The average of all scores is " + AllGameRecord.average(allGames.listOfGameRecords));
-        System.out.println("The 2 highest scores are " + AllGameRecord.highGameList(allGames.listOfGameRecords, 2));
+        System.out.println("The average of all scores is " + allGames.average());
+        System.out.println("The 2 highest scores are " + allGames.highGameList(2));
 
     }
 